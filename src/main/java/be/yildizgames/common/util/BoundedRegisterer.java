@@ -0,0 +1,270 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.security.InvalidParameterException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Register objects to be retrieved by their name, keeping at most a given number of elements.
+ * When full, the least recently used element is evicted to register a new one, if the eviction policy admits it,
+ * evicted and rejected elements are given to an eviction listener, i.e. to release their memory.
+ * This class is thread safe.
+ *
+ * @param <T> Type to register.
+ * @author Grégory Van den Borre
+ */
+public final class BoundedRegisterer<T extends Registerable> {
+
+    /**
+     * Elements, from the least to the most recently used.
+     */
+    private final Map<String, T> list = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Maximum number of elements.
+     */
+    private final int capacity;
+
+    /**
+     * Policy deciding if a new element can replace the least recently used one.
+     */
+    private final EvictionPolicy policy;
+
+    /**
+     * Called with every evicted or rejected element.
+     */
+    private final Consumer<T> evictionListener;
+
+    /**
+     * Behavior to call when no result is found for a given name.
+     */
+    private final NoResult<T> noResult;
+
+    /**
+     * Number of lookups returning an element.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups not returning any element.
+     */
+    private long misses;
+
+    /**
+     * Number of elements evicted to register new ones.
+     */
+    private long evictions;
+
+    /**
+     * Number of elements not registered because refused by the eviction policy.
+     */
+    private long rejections;
+
+    private BoundedRegisterer(final int capacity, final EvictionPolicy policy, final Consumer<T> evictionListener, final NoResult<T> noResult) {
+        super();
+        Checker.exceptionNotGreaterThanZero(capacity);
+        this.capacity = capacity;
+        this.policy = policy;
+        this.evictionListener = evictionListener;
+        this.noResult = noResult;
+    }
+
+    /**
+     * Factory to build a new BoundedRegisterer instance, when no result is found, an InvalidParameterException is
+     * thrown.
+     *
+     * @param <T>              Type to use in the registerer.
+     * @param capacity         Maximum number of elements.
+     * @param policy           Policy deciding if a new element can replace the least recently used one.
+     * @param evictionListener Called with every evicted or rejected element.
+     * @return A new BoundedRegisterer instance.
+     */
+    public static <T extends Registerable> BoundedRegisterer<T> newBoundedRegisterer(final int capacity, final EvictionPolicy policy, final Consumer<T> evictionListener) {
+        return new BoundedRegisterer<>(capacity, policy, evictionListener, name -> {
+            throw new InvalidParameterException(name + " not found");
+        });
+    }
+
+    /**
+     * Factory to build a new BoundedRegisterer instance.
+     *
+     * @param <T>              Type to use in the registerer.
+     * @param capacity         Maximum number of elements.
+     * @param policy           Policy deciding if a new element can replace the least recently used one.
+     * @param evictionListener Called with every evicted or rejected element.
+     * @param noResult         Behavior to use when no result is found for a given name.
+     * @return A new BoundedRegisterer instance.
+     */
+    public static <T extends Registerable> BoundedRegisterer<T> newBoundedRegisterer(final int capacity, final EvictionPolicy policy, final Consumer<T> evictionListener, final NoResult<T> noResult) {
+        return new BoundedRegisterer<>(capacity, policy, evictionListener, noResult);
+    }
+
+    /**
+     * Retrieve an element from its name, if nothing matches, the NoResult
+     * behavior is called.
+     *
+     * @param name Name of the object to retrieve.
+     * @return The object matching the name.
+     */
+    public T get(final String name) {
+        T result = this.lookup(name);
+        if (result == null) {
+            return this.noResult.resultNotFound(name);
+        }
+        return result;
+    }
+
+    /**
+     * Search for an element from its name.
+     *
+     * @param name Name of the object to search for.
+     * @return An optional result.
+     */
+    public Optional<T> find(final String name) {
+        return Optional.ofNullable(this.lookup(name));
+    }
+
+    /**
+     * Register a new element, if the element name is already registered, an
+     * InvalidParameterException is thrown.
+     * If the registerer is full, the least recently used element is evicted if the eviction policy admits the new
+     * element, otherwise the new element is rejected and not registered. The eviction listener is called with the
+     * evicted or rejected element.
+     *
+     * @param element Object to insert.
+     */
+    public void register(final T element) {
+        T evicted = null;
+        synchronized (this.list) {
+            String name = element.getName();
+            if (this.list.containsKey(name)) {
+                throw new InvalidParameterException("BoundedRegisterer associated with name " + name + " already exists.");
+            }
+            this.policy.recordAccess(name);
+            if (this.list.size() >= this.capacity) {
+                Iterator<T> eldest = this.list.values().iterator();
+                T victim = eldest.next();
+                if (this.policy.admit(name, victim.getName())) {
+                    eldest.remove();
+                    this.evictions++;
+                    evicted = victim;
+                } else {
+                    this.rejections++;
+                    evicted = element;
+                }
+            }
+            if (evicted != element) {
+                this.list.put(name, element);
+            }
+        }
+        if (evicted != null) {
+            this.evictionListener.accept(evicted);
+        }
+    }
+
+    /**
+     * Unregister an element, the eviction listener is not called.
+     *
+     * @param element Object to remove.
+     */
+    public void remove(final T element) {
+        synchronized (this.list) {
+            this.list.remove(element.getName());
+        }
+    }
+
+    /**
+     * @return The number of registered elements.
+     */
+    public int size() {
+        synchronized (this.list) {
+            return this.list.size();
+        }
+    }
+
+    /**
+     * @return The number of lookups returning an element.
+     */
+    public long getHits() {
+        synchronized (this.list) {
+            return this.hits;
+        }
+    }
+
+    /**
+     * @return The number of lookups not returning any element.
+     */
+    public long getMisses() {
+        synchronized (this.list) {
+            return this.misses;
+        }
+    }
+
+    /**
+     * @return The ratio between hits and lookups, 0 if there was no lookup.
+     */
+    public float getHitRatio() {
+        synchronized (this.list) {
+            long lookups = this.hits + this.misses;
+            return lookups == 0 ? 0 : (float) this.hits / lookups;
+        }
+    }
+
+    /**
+     * @return The number of elements evicted to register new ones.
+     */
+    public long getEvictions() {
+        synchronized (this.list) {
+            return this.evictions;
+        }
+    }
+
+    /**
+     * @return The number of elements not registered because refused by the eviction policy.
+     */
+    public long getRejections() {
+        synchronized (this.list) {
+            return this.rejections;
+        }
+    }
+
+    private T lookup(final String name) {
+        synchronized (this.list) {
+            this.policy.recordAccess(name);
+            T result = this.list.get(name);
+            if (result == null) {
+                this.misses++;
+            } else {
+                this.hits++;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Many bounded values stored by columns, to avoid an object per value, i.e. a stat for every entity of a world.
+ * Each value behaves like a BoundedValue: it cannot be lower than 0 or higher than its max.
+ * Values and maxima are stored in primitive arrays, so bulk operations are simple loops over contiguous memory, that
+ * the JIT compiler can vectorize.
+ * This class is not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class BoundedValueArray {
+
+    /**
+     * Values, always between 0 and their max.
+     */
+    private final float[] values;
+
+    /**
+     * Maximum of every value.
+     */
+    private final float[] maxima;
+
+    private BoundedValueArray(final int size) {
+        super();
+        Checker.exceptionNotPositive(size);
+        this.values = new float[size];
+        this.maxima = new float[size];
+    }
+
+    /**
+     * Create a new array, all values and maxima are 0.
+     *
+     * @param size Number of values.
+     * @return The created array.
+     */
+    public static BoundedValueArray newArray(final int size) {
+        return new BoundedValueArray(size);
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * Provide a value.
+     *
+     * @param index Value index.
+     * @return The value.
+     */
+    public int getValue(final int index) {
+        return (int) this.values[index];
+    }
+
+    /**
+     * Update a value, if parameter is smaller than 0, 0 will be used, if parameter is higher than the value max, max
+     * will be used.
+     *
+     * @param index Value index.
+     * @param value New value to set.
+     */
+    public void setValue(final int index, final float value) {
+        this.values[index] = clamp(value, this.maxima[index]);
+    }
+
+    /**
+     * Provide a maximum.
+     *
+     * @param index Value index.
+     * @return The maximum.
+     */
+    public int getMax(final int index) {
+        return (int) this.maxima[index];
+    }
+
+    /**
+     * Update a max value, if parameter is smaller than 0, 0 will be set. If new max is lower than the value, the value
+     * will be updated to fit it.
+     *
+     * @param index Value index.
+     * @param max   New value for max.
+     */
+    public void setMax(final int index, final float max) {
+        this.maxima[index] = max < 0 ? 0 : max;
+        this.setValue(index, this.values[index]);
+    }
+
+    /**
+     * Set a max, and the value to this max.
+     *
+     * @param index Value index.
+     * @param max   New value for max and value.
+     */
+    public void setValueAndMax(final int index, final int max) {
+        this.setMax(index, max);
+        this.setValue(index, max);
+    }
+
+    /**
+     * Add to a value.
+     *
+     * @param index Value index.
+     * @param toAdd Value to add.
+     */
+    public void add(final int index, final float toAdd) {
+        this.setValue(index, this.values[index] + toAdd);
+    }
+
+    /**
+     * Add the same amount to all values, i.e. for a regeneration applied to every entity.
+     *
+     * @param toAdd Value to add.
+     */
+    public void addAll(final float toAdd) {
+        final float[] v = this.values;
+        final float[] m = this.maxima;
+        for (int i = 0; i < v.length; i++) {
+            v[i] = clamp(v[i] + toAdd, m[i]);
+        }
+    }
+
+    /**
+     * Add a different amount to every value.
+     *
+     * @param deltas Value to add for each index, must have the same size as this array.
+     * @throws InvalidParameterException If the deltas size is not the size of this array.
+     */
+    public void add(final float[] deltas) {
+        if (deltas.length != this.values.length) {
+            throw new InvalidParameterException("Deltas size " + deltas.length + " does not match array size " + this.values.length);
+        }
+        final float[] v = this.values;
+        final float[] m = this.maxima;
+        for (int i = 0; i < v.length; i++) {
+            v[i] = clamp(v[i] + deltas[i], m[i]);
+        }
+    }
+
+    /**
+     * Check if a value is zero.
+     *
+     * @param index Value index.
+     * @return <code>true</code> if the value is zero, <code>false</code> otherwise.
+     */
+    public boolean isZero(final int index) {
+        return this.getValue(index) == 0;
+    }
+
+    /**
+     * Check if a value is at least a given amount.
+     *
+     * @param index Value index.
+     * @param value Amount to compare.
+     * @return <code>true</code> if the value is higher or equal to the amount.
+     */
+    public boolean isMoreThan(final int index, final float value) {
+        return this.values[index] >= value;
+    }
+
+    /**
+     * Provide the ratio between a max and its value.
+     *
+     * @param index Value index.
+     * @return The ratio between the max and the value.
+     */
+    public float getRatio(final int index) {
+        return this.maxima[index] / this.values[index];
+    }
+
+    /**
+     * Copy a value in a new BoundedValue.
+     *
+     * @param index Value index.
+     * @return A BoundedValue with the same value and max.
+     */
+    public BoundedValue toBoundedValue(final int index) {
+        return new BoundedValue(this.values[index], this.maxima[index]);
+    }
+
+    /**
+     * Provide a value as text.
+     *
+     * @param index Value index.
+     * @return The value and its max, as value/max.
+     */
+    public String toString(final int index) {
+        return this.getValue(index) + "/" + this.getMax(index);
+    }
+
+    /**
+     * Keep a value between 0 and a max, as done by BoundedValue.
+     *
+     * @param value Value to clamp.
+     * @param max   Maximum.
+     * @return The clamped value.
+     */
+    private static float clamp(final float value, final float max) {
+        return Math.min(Math.max(value, 0), max);
+    }
+}
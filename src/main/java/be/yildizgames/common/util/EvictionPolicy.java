@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Policy deciding if a new element can replace the least recently used one when a BoundedRegisterer is full.
+ * Implementations are called while the registerer is locked, they do not need to be thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface EvictionPolicy {
+
+    /**
+     * Least recently used policy, a new element always replaces the least recently used one.
+     *
+     * @return A new LRU policy.
+     */
+    static EvictionPolicy lru() {
+        return new LruEvictionPolicy();
+    }
+
+    /**
+     * Frequency aware policy, a new element replaces the least recently used one only if its name was requested more
+     * often, so a scan over many elements used only once does not evict the frequently used ones.
+     * Frequencies are estimated in a fixed size sketch, periodically halved to forget old accesses.
+     *
+     * @param capacity Maximum number of elements of the registerer using the policy.
+     * @return A new frequency aware policy.
+     */
+    static EvictionPolicy frequency(final int capacity) {
+        return new FrequencyEvictionPolicy(capacity);
+    }
+
+    /**
+     * Called every time a name is requested or registered.
+     *
+     * @param name Accessed name.
+     */
+    void recordAccess(String name);
+
+    /**
+     * Decide if a new element can be registered in place of the least recently used one.
+     *
+     * @param candidate Name of the element to register.
+     * @param victim    Name of the least recently used element.
+     * @return true to evict the victim and register the candidate, false to reject the candidate.
+     */
+    boolean admit(String candidate, String victim);
+}
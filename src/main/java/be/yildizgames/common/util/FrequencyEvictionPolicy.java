@@ -0,0 +1,134 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Frequency aware admission policy, estimate the access frequency of the names with a count min sketch, and only
+ * admit a new element if it is more frequently accessed than the element to evict.
+ *
+ * @author Grégory Van den Borre
+ */
+final class FrequencyEvictionPolicy implements EvictionPolicy {
+
+    /**
+     * Number of hash functions, each having its own row of counters.
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * Maximum value of a counter.
+     */
+    private static final int MAX_COUNT = 15;
+
+    /**
+     * Minimum number of counters in a row, so small registerers do not suffer from too many collisions.
+     */
+    private static final int MIN_WIDTH = 64;
+
+    /**
+     * Seeds of the hash functions.
+     */
+    private static final int[] SEEDS = {0x97CB3127, 0xB71C4FE5, 0x3C6EF372, 0xA54FF53A};
+
+    /**
+     * Counters, the row for a hash function starts at its index times the width.
+     */
+    private final byte[] counters;
+
+    /**
+     * Number of counters in a row, minus one, the width being a power of 2.
+     */
+    private final int mask;
+
+    /**
+     * Number of accesses before halving all the counters.
+     */
+    private final int sampleSize;
+
+    /**
+     * Number of accesses since the last halving.
+     */
+    private int additions;
+
+    FrequencyEvictionPolicy(final int capacity) {
+        super();
+        Checker.exceptionNotGreaterThanZero(capacity);
+        int width = Math.max(Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1, MIN_WIDTH);
+        this.counters = new byte[DEPTH * width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    @Override
+    public void recordAccess(final String name) {
+        int hash = name.hashCode();
+        for (int i = 0; i < DEPTH; i++) {
+            int index = this.index(hash, i);
+            if (this.counters[index] < MAX_COUNT) {
+                this.counters[index]++;
+            }
+        }
+        this.additions++;
+        if (this.additions == this.sampleSize) {
+            this.halve();
+        }
+    }
+
+    @Override
+    public boolean admit(final String candidate, final String victim) {
+        return this.frequency(candidate) > this.frequency(victim);
+    }
+
+    /**
+     * Estimate the number of accesses of a name.
+     *
+     * @param name Name to check.
+     * @return The smallest counter value for the name.
+     */
+    int frequency(final String name) {
+        int hash = name.hashCode();
+        int result = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            result = Math.min(result, this.counters[this.index(hash, i)]);
+        }
+        return result;
+    }
+
+    private int index(final int hash, final int row) {
+        int h = (hash + SEEDS[row]) * 0x9E3779B9;
+        h ^= h >>> 16;
+        return row * (this.mask + 1) + (h & this.mask);
+    }
+
+    /**
+     * Halve all counters, so old accesses weight less than recent ones.
+     */
+    private void halve() {
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] = (byte) (this.counters[i] >> 1);
+        }
+        this.additions /= 2;
+    }
+}
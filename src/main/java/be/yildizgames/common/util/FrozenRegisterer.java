@@ -0,0 +1,274 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Immutable read only view of a Registerer, built with Registerer.freeze().
+ * Names are indexed with a minimal perfect hash function: every name is associated to its own slot, so a lookup is
+ * a single hash computation, one seed read, and one name comparison, without probing nor boxing.
+ * Names are compared with the same NameFolding as the registerer the view was built from.
+ *
+ * @param <T> Type of the registered elements.
+ * @author Grégory Van den Borre
+ */
+public final class FrozenRegisterer<T extends Registerable> {
+
+    /**
+     * Constant used to derive the slot hash from the name hash and the bucket seed.
+     */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Number of seeds to try for a bucket, per slot in the table, before trying again with another salt.
+     * The last buckets to place need in average as many tries as there are slots.
+     */
+    private static final int SEED_TRIES_PER_SLOT = 16;
+
+    /**
+     * Names, the index is the slot computed by the perfect hash function.
+     */
+    private final String[] names;
+
+    /**
+     * Elements, at the same index as their name.
+     */
+    private final Object[] elements;
+
+    /**
+     * Seed for each bucket, used to compute the slot of the names in that bucket.
+     */
+    private final int[] seeds;
+
+    /**
+     * Salt used to compute the name hashes.
+     */
+    private final long salt;
+
+    /**
+     * Number of elements.
+     */
+    private final int size;
+
+    /**
+     * Behavior to call when no result is found for a given name.
+     */
+    private final NoResult<T> noResult;
+
+    /**
+     * Folding used to compare the names.
+     */
+    private final NameFolding folding;
+
+    /**
+     * Build the perfect hash table for a set of elements with unique names.
+     *
+     * @param values   Elements to index.
+     * @param noResult Behavior to use when no result is found for a given name.
+     * @param folding  Folding used to compare the names.
+     */
+    FrozenRegisterer(final Collection<T> values, final NoResult<T> noResult, final NameFolding folding) {
+        super();
+        this.noResult = noResult;
+        this.folding = folding;
+        this.size = values.size();
+        String[] keys = new String[this.size];
+        Object[] items = new Object[this.size];
+        int index = 0;
+        for (T value : values) {
+            keys[index] = value.getName();
+            items[index] = value;
+            index++;
+        }
+        int tableSize = Math.max(this.size, 1);
+        this.names = new String[tableSize];
+        this.elements = new Object[tableSize];
+        this.seeds = new int[Math.max((this.size + 1) / 2, 1)];
+        long currentSalt = 0;
+        while (!this.build(keys, items, currentSalt)) {
+            currentSalt++;
+        }
+        this.salt = currentSalt;
+    }
+
+    /**
+     * Retrieve an element from its name, if nothing matches, the NoResult
+     * behavior is called.
+     *
+     * @param name Name of the object to retrieve.
+     * @return The object matching the name.
+     */
+    public T get(final String name) {
+        T result = this.lookup(name);
+        if (result == null) {
+            return this.noResult.resultNotFound(name);
+        }
+        return result;
+    }
+
+    /**
+     * Search for an element from its name.
+     *
+     * @param name Name of the object to search for.
+     * @return An optional result.
+     */
+    public Optional<T> find(final String name) {
+        return Optional.ofNullable(this.lookup(name));
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T lookup(final String name) {
+        long hash = this.hash(name, this.salt);
+        int seed = this.seeds[reduce(hash, this.seeds.length)];
+        int slot = reduce(mix(hash ^ (seed * GOLDEN_RATIO)), this.names.length);
+        String candidate = this.names[slot];
+        if (candidate != null && this.folding.sameName(name, candidate)) {
+            return (T) this.elements[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Try to find a seed for every bucket so that all names have a different slot, largest buckets first.
+     *
+     * @param keys  Names to place.
+     * @param items Elements to place, at the same index as their name.
+     * @param s     Salt to use to hash the names.
+     * @return true if the table could be built with that salt, false otherwise.
+     */
+    private boolean build(final String[] keys, final Object[] items, final long s) {
+        int bucketNumber = this.seeds.length;
+        long[] hashes = new long[keys.length];
+        int[] bucketStart = new int[bucketNumber + 1];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = this.hash(keys[i], s);
+            bucketStart[reduce(hashes[i], bucketNumber) + 1]++;
+        }
+        int maxBucketSize = 0;
+        for (int b = 0; b < bucketNumber; b++) {
+            maxBucketSize = Math.max(maxBucketSize, bucketStart[b + 1]);
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        int[] members = new int[keys.length];
+        int[] fill = new int[bucketNumber];
+        for (int i = 0; i < keys.length; i++) {
+            int b = reduce(hashes[i], bucketNumber);
+            members[bucketStart[b] + fill[b]++] = i;
+        }
+        int[] bucketsBySize = new int[bucketNumber];
+        int position = 0;
+        for (int bucketSize = maxBucketSize; bucketSize > 0; bucketSize--) {
+            for (int b = 0; b < bucketNumber; b++) {
+                if (bucketStart[b + 1] - bucketStart[b] == bucketSize) {
+                    bucketsBySize[position++] = b;
+                }
+            }
+        }
+        boolean[] used = new boolean[this.names.length];
+        int[] slots = new int[maxBucketSize];
+        for (int p = 0; p < position; p++) {
+            int b = bucketsBySize[p];
+            int seed = this.findSeed(hashes, members, bucketStart[b], bucketStart[b + 1], used, slots);
+            if (seed < 0) {
+                return false;
+            }
+            this.seeds[b] = seed;
+            for (int m = bucketStart[b]; m < bucketStart[b + 1]; m++) {
+                int slot = slots[m - bucketStart[b]];
+                used[slot] = true;
+                this.names[slot] = keys[members[m]];
+                this.elements[slot] = items[members[m]];
+            }
+        }
+        return true;
+    }
+
+    private int findSeed(final long[] hashes, final int[] members, final int start, final int end, final boolean[] used, final int[] slots) {
+        int maxTries = SEED_TRIES_PER_SLOT * this.names.length + 1024;
+        for (int seed = 0; seed < maxTries; seed++) {
+            boolean valid = true;
+            for (int m = start; m < end && valid; m++) {
+                int slot = reduce(mix(hashes[members[m]] ^ (seed * GOLDEN_RATIO)), this.names.length);
+                valid = !used[slot];
+                for (int previous = 0; previous < m - start && valid; previous++) {
+                    valid = slots[previous] != slot;
+                }
+                slots[m - start] = slot;
+            }
+            if (valid) {
+                return seed;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compute a 64 bits hash of a folded name, with a salt.
+     *
+     * @param name Name to hash.
+     * @param salt Salt to use.
+     * @return The hash value.
+     */
+    private long hash(final String name, final long salt) {
+        long hash = 0xCBF29CE484222325L ^ salt;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ this.folding.fold(name.charAt(i))) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Mix the bits of a value (MurmurHash3 finalizer).
+     *
+     * @param value Value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(final long value) {
+        long h = value;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Map a hash to a range without division, using its higher bits.
+     *
+     * @param hash  Hash to map.
+     * @param range Upper bound, excluded.
+     * @return A value between 0 and range.
+     */
+    private static int reduce(final long hash, final int range) {
+        return (int) (((hash >>> 32) * range) >>> 32);
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Read only registerer backed by a memory mapped file, written from a Registerer with the write method.
+ * Opening the file only maps it and verifies the checksum of its header and index, names are searched directly in the
+ * mapped index, and an element is only read, verified with its own checksum and deserialized the first time it is
+ * retrieved, so a restarted process can serve lookups immediately, without reading the whole file.
+ * Names are compared with the folding of the written registerer.
+ * <p>
+ * File layout(big endian):
+ * <ul>
+ * <li>Header: magic number, format version, element number, slot number, name folding, content length, CRC32 of the
+ * header and index.</li>
+ * <li>Slots: open addressing table of entry index + 1 (0 for an empty slot), using the String.hashCode of the folded
+ * name.</li>
+ * <li>Entries: name hash, name offset, name length, data offset, data length, CRC32 of the name and data, offsets are
+ * from the file start.</li>
+ * <li>UTF-8 encoded names, each followed by its serialized element.</li>
+ * </ul>
+ *
+ * @param <T> Type of the registered elements.
+ * @author Grégory Van den Borre
+ */
+public final class MappedRegisterer<T extends Registerable> {
+
+    /**
+     * Magic number identifying the file format: YREG.
+     */
+    private static final int MAGIC = 0x59524547;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 36;
+
+    /**
+     * Position of the header checksum, the header bytes before it are included in the checksum.
+     */
+    private static final int HEADER_CRC = 28;
+
+    /**
+     * Size of an entry, in bytes.
+     */
+    private static final int ENTRY_SIZE = 24;
+
+    /**
+     * Mapped file content.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of elements.
+     */
+    private final int size;
+
+    /**
+     * Number of slots, a power of 2.
+     */
+    private final int slotNumber;
+
+    /**
+     * Folding used to hash and compare the names.
+     */
+    private final NameFolding folding;
+
+    /**
+     * Position of the first entry.
+     */
+    private final int entriesStart;
+
+    /**
+     * Elements already deserialized, the index is the entry index.
+     */
+    private final AtomicReferenceArray<T> elements;
+
+    /**
+     * Function to build an element from its serialized data.
+     */
+    private final Function<ByteBuffer, T> deserializer;
+
+    private MappedRegisterer(final ByteBuffer buffer, final int size, final int slotNumber, final NameFolding folding,
+                             final Function<ByteBuffer, T> deserializer) {
+        super();
+        this.buffer = buffer;
+        this.size = size;
+        this.slotNumber = slotNumber;
+        this.folding = folding;
+        this.entriesStart = HEADER_SIZE + slotNumber * Integer.BYTES;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * Write the elements currently registered in a file, to be opened later with the open method.
+     * The file is first written next to the destination, and then moved, so an existing file is never left
+     * partially written.
+     *
+     * @param <T>        Type of the registered elements.
+     * @param registerer Registerer to write.
+     * @param file       Destination file.
+     * @param serializer Function to convert an element to bytes.
+     * @throws IOException If the file cannot be written.
+     */
+    public static <T extends Registerable> void write(final Registerer<T> registerer, final Path file, final Function<T, byte[]> serializer) throws IOException {
+        List<T> values = registerer.values();
+        NameFolding folding = registerer.getFolding();
+        int count = values.size();
+        int slotNumber = Math.max(Integer.highestOneBit(Math.max(count * 2 - 1, 1)) << 1, 2);
+        byte[][] names = new byte[count][];
+        byte[][] data = new byte[count][];
+        long total = HEADER_SIZE + (long) slotNumber * Integer.BYTES + (long) count * ENTRY_SIZE;
+        for (int i = 0; i < count; i++) {
+            names[i] = values.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            data[i] = serializer.apply(values.get(i));
+            total += names[i].length + data[i].length;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Registerer is too large to be mapped: " + total + " bytes.");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        int entriesStart = HEADER_SIZE + slotNumber * Integer.BYTES;
+        int position = entriesStart + count * ENTRY_SIZE;
+        for (int i = 0; i < count; i++) {
+            int hash = NameTable.hash(folding, values.get(i).getName());
+            int slot = spread(hash) & (slotNumber - 1);
+            while (out.getInt(HEADER_SIZE + slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & (slotNumber - 1);
+            }
+            out.putInt(HEADER_SIZE + slot * Integer.BYTES, i + 1);
+            int entry = entriesStart + i * ENTRY_SIZE;
+            out.putInt(entry, hash);
+            out.putInt(entry + 4, position);
+            out.putInt(entry + 8, names[i].length);
+            out.position(position);
+            out.put(names[i]);
+            position += names[i].length;
+            out.putInt(entry + 12, position);
+            out.putInt(entry + 16, data[i].length);
+            out.put(data[i]);
+            out.putInt(entry + 20, checksum(out, position - names[i].length, position + data[i].length));
+            position += data[i].length;
+        }
+        out.putInt(0, MAGIC);
+        out.putInt(4, FORMAT_VERSION);
+        out.putInt(8, count);
+        out.putInt(12, slotNumber);
+        out.putInt(16, folding.ordinal());
+        out.putLong(20, total - HEADER_SIZE);
+        out.putLong(HEADER_CRC, indexChecksum(out, entriesStart + count * ENTRY_SIZE));
+        out.position(0);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open a file written with the write method.
+     *
+     * @param <T>          Type of the registered elements.
+     * @param file         File to open.
+     * @param deserializer Function to build an element from its data, called at most once per element, the provided
+     *                     buffer is a read only view on the element data.
+     * @return The mapped registerer.
+     * @throws IOException If the file cannot be read, is not a registerer file, has an unsupported version, or is
+     *                     corrupted.
+     */
+    public static <T extends Registerable> MappedRegisterer<T> open(final Path file, final Function<ByteBuffer, T> deserializer) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a valid registerer file.");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        if (mapped.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a registerer file.");
+        }
+        if (mapped.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(file + " has an unsupported version: " + mapped.getInt(4));
+        }
+        int count = mapped.getInt(8);
+        int slotNumber = mapped.getInt(12);
+        int folding = mapped.getInt(16);
+        if (mapped.getLong(20) != mapped.capacity() - HEADER_SIZE || Integer.bitCount(slotNumber) != 1 || count < 0
+                || folding < 0 || folding >= NameFolding.values().length
+                || count >= slotNumber
+                || HEADER_SIZE + (long) slotNumber * Integer.BYTES + (long) count * ENTRY_SIZE > mapped.capacity()
+                || mapped.getLong(HEADER_CRC) != indexChecksum(mapped, HEADER_SIZE + slotNumber * Integer.BYTES + count * ENTRY_SIZE)) {
+            throw new IOException(file + " is corrupted.");
+        }
+        return new MappedRegisterer<>(mapped.asReadOnlyBuffer(), count, slotNumber, NameFolding.values()[folding], deserializer);
+    }
+
+    /**
+     * Retrieve an element from its name.
+     *
+     * @param name Name of the object to retrieve.
+     * @return The object matching the name.
+     * @throws InvalidParameterException If no element matches the name.
+     */
+    public T get(final String name) {
+        return this.find(name).orElseThrow(() -> new InvalidParameterException(name + " not found"));
+    }
+
+    /**
+     * Search for an element from its name, the element is verified and deserialized the first time it is found.
+     *
+     * @param name Name of the object to search for.
+     * @return An optional result.
+     * @throws UncheckedIOException If the element name or data do not match their checksum.
+     */
+    public Optional<T> find(final String name) {
+        int entry = this.entry(name);
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        T element = this.elements.get(entry);
+        if (element == null) {
+            int position = this.entriesStart + entry * ENTRY_SIZE;
+            int start = this.buffer.getInt(position + 4);
+            int end = this.buffer.getInt(position + 12) + this.buffer.getInt(position + 16);
+            if (start < 0 || end < start || end > this.buffer.capacity()
+                    || checksum(this.buffer, start, end) != this.buffer.getInt(position + 20)) {
+                throw new UncheckedIOException(new IOException("Entry " + name + " is corrupted."));
+            }
+            ByteBuffer data = this.buffer.duplicate();
+            data.limit(this.buffer.getInt(position + 12) + this.buffer.getInt(position + 16));
+            data.position(this.buffer.getInt(position + 12));
+            T created = this.deserializer.apply(data.slice());
+            element = this.elements.compareAndSet(entry, null, created) ? created : this.elements.get(entry);
+        }
+        return Optional.of(element);
+    }
+
+    /**
+     * Check if a name is present, without deserializing its element.
+     *
+     * @param name Name to search.
+     * @return true if an element is associated to the name.
+     */
+    public boolean contains(final String name) {
+        return this.entry(name) >= 0;
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Find the entry associated to a name, comparing the folded name directly with the mapped UTF-8 bytes.
+     *
+     * @param name Name to search.
+     * @return The entry index, or -1 if the name is not found.
+     */
+    private int entry(final String name) {
+        int hash = NameTable.hash(this.folding, name);
+        int mask = this.slotNumber - 1;
+        int slot = spread(hash) & mask;
+        int value;
+        while ((value = this.buffer.getInt(HEADER_SIZE + slot * Integer.BYTES)) != 0) {
+            int position = this.entriesStart + (value - 1) * ENTRY_SIZE;
+            if (this.buffer.getInt(position) == hash
+                    && NameTable.matchesUtf8(this.folding, name, this.buffer, this.buffer.getInt(position + 4), this.buffer.getInt(position + 8))) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compute the checksum of the header and index.
+     *
+     * @param content    File content.
+     * @param entriesEnd Position after the last entry.
+     * @return The CRC32 of the header bytes before the checksum, and of the slots and entries.
+     */
+    private static long indexChecksum(final ByteBuffer content, final int entriesEnd) {
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate().position(0).limit(HEADER_CRC));
+        crc.update(content.duplicate().limit(entriesEnd).position(HEADER_SIZE));
+        return crc.getValue();
+    }
+
+    /**
+     * Compute the checksum of a part of the content.
+     *
+     * @param content File content.
+     * @param start   Position of the first byte.
+     * @param end     Position after the last byte.
+     * @return The CRC32 of the bytes.
+     */
+    private static int checksum(final ByteBuffer content, final int start, final int end) {
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate().limit(end).position(start));
+        return (int) crc.getValue();
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
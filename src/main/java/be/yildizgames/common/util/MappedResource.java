@@ -0,0 +1,282 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * Resource whose content is a memory mapped region of a file, the content is not stored in the java heap, and is only
+ * read from the disk when accessed.
+ * Views on the content are read only and do not copy it, they stay valid after the resource is unloaded or reloaded.
+ * The content can be read in two ways:
+ * <ul>
+ * <li>With read, the view is only used during a function call, and the resource is referenced meanwhile, so it cannot
+ * be unloaded. If the content of a mapping is only read this way, the mapping is released immediately on unload,
+ * when the runtime allows it: the optional jdk.unsupported module must be present, on the module path it is only
+ * resolved if required by another module or added with --add-modules jdk.unsupported.</li>
+ * <li>With getContent, the view can be kept as long as needed, the mapping is then released only when its views are
+ * garbage collected.</li>
+ * </ul>
+ * On reload, the new content replaces the previous one at once, the previous mapping is released when garbage
+ * collected.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class MappedResource extends Resource {
+
+    /**
+     * Method releasing a mapping immediately, null if not supported by the runtime, i.e. if the optional
+     * jdk.unsupported module is not present.
+     */
+    private static final Method CLEANER;
+
+    /**
+     * Instance to invoke the cleaner method on.
+     */
+    private static final Object UNSAFE;
+
+    static {
+        Method cleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            cleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            cleaner = null;
+        }
+        CLEANER = cleaner;
+        UNSAFE = unsafe;
+    }
+
+    /**
+     * File containing the content.
+     */
+    private final Path file;
+
+    /**
+     * Position of the content in the file.
+     */
+    private final long offset;
+
+    /**
+     * Size of the content, -1 to map the file until its end.
+     */
+    private final long length;
+
+    /**
+     * Mapped content, null if not loaded.
+     */
+    private volatile Mapping content;
+
+    private MappedResource(final String name, final Path file, final long offset, final long length) {
+        super(name);
+        Checker.exceptionNotPositive(offset);
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Create a resource mapping a whole file.
+     *
+     * @param name Unique resource name.
+     * @param file File to map.
+     * @return The created resource, not loaded.
+     */
+    public static MappedResource newMappedResource(final String name, final Path file) {
+        return new MappedResource(name, file, 0, -1);
+    }
+
+    /**
+     * Create a resource mapping a region of a file.
+     *
+     * @param name   Unique resource name.
+     * @param file   File to map.
+     * @param offset Position of the region in the file.
+     * @param length Size of the region.
+     * @return The created resource, not loaded.
+     */
+    public static MappedResource newMappedResource(final String name, final Path file, final long offset, final long length) {
+        Checker.exceptionNotPositive(length);
+        return new MappedResource(name, file, offset, length);
+    }
+
+    /**
+     * Provide a read only view on the content, with its own position and limit, the content is not copied.
+     * The view stays valid after the resource is unloaded, the mapping is then released when garbage collected.
+     * Once a view was given, the current mapping is never released on unload, only when all its views are garbage
+     * collected, even if the view is no longer used: prefer read to release the memory as soon as unloaded.
+     *
+     * @return A view on the whole content.
+     * @throws IllegalStateException If the resource is not loaded.
+     */
+    public ByteBuffer getContent() {
+        Mapping current = this.content;
+        if (current == null) {
+            throw new IllegalStateException(this.getName() + " is not loaded");
+        }
+        current.shared = true;
+        //An unload clearing the content before the flag was set could have released the mapping.
+        if (this.content != current) {
+            throw new IllegalStateException(this.getName() + " is not loaded");
+        }
+        return current.buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Read the content, the resource is loaded if needed, and cannot be unloaded during the reading.
+     * The view must not be used once the function returned, it allows the mapping to be released immediately on
+     * unload.
+     *
+     * @param <R>    Type of the read result.
+     * @param reader Function reading a read only view on the whole content, the content is not copied.
+     * @return The function result.
+     */
+    public <R> R read(final Function<ByteBuffer, R> reader) {
+        try (ResourceHandle<MappedResource> handle = ResourceHandle.acquire(this)) {
+            return reader.apply(handle.get().content.buffer.asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * Provide a read only view on a part of the content, the content is not copied.
+     *
+     * @param position Position of the view in the content.
+     * @param size     Size of the view.
+     * @return A view on the part of the content.
+     * @throws IllegalStateException     If the resource is not loaded.
+     * @throws IndexOutOfBoundsException If the part is not in the content.
+     */
+    public ByteBuffer getContent(final int position, final int size) {
+        ByteBuffer view = this.getContent();
+        if (position < 0 || size < 0 || position > view.capacity() - size) {
+            throw new IndexOutOfBoundsException("Invalid range " + position + ", " + size + " for " + view.capacity() + " bytes");
+        }
+        return view.position(position).limit(position + size).slice();
+    }
+
+    /**
+     * @return The size of the mapped content, in bytes, 0 if not loaded.
+     */
+    @Override
+    public long getSize() {
+        Mapping current = this.content;
+        return current == null ? 0 : current.buffer.capacity();
+    }
+
+    @Override
+    protected void loadImpl() {
+        this.content = this.map();
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return true;
+    }
+
+    /**
+     * Map the new file content, and then replace the previous one, the previous mapping is released when its views are
+     * garbage collected, as they can still be in use.
+     */
+    @Override
+    protected void reloadImpl() {
+        this.content = this.map();
+    }
+
+    /**
+     * Map the content from the file.
+     *
+     * @return The mapped content.
+     */
+    private Mapping map() {
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            long size = this.length == -1 ? channel.size() - this.offset : this.length;
+            if (size < 0 || size > Integer.MAX_VALUE || this.offset + size > channel.size()) {
+                throw new IllegalStateException("Cannot map " + size + " bytes at " + this.offset + " from " + this.file);
+            }
+            return new Mapping(channel.map(FileChannel.MapMode.READ_ONLY, this.offset, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Release the mapping immediately if no view was ever given with getContent for it, and so none can still be used,
+     * otherwise the mapping is released when its views are garbage collected, whether they are still used or not.
+     */
+    @Override
+    protected void unloadImpl() {
+        Mapping current = this.content;
+        this.content = null;
+        if (current != null && !current.shared && CLEANER != null) {
+            try {
+                CLEANER.invoke(UNSAFE, current.buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                //Released when garbage collected.
+            }
+        }
+    }
+
+    /**
+     * @return true if the unloaded mappings can be released immediately by the runtime.
+     */
+    static boolean isImmediateReleaseSupported() {
+        return CLEANER != null;
+    }
+
+    /**
+     * A mapped region, and whether views on it were given without control over their lifetime.
+     */
+    private static final class Mapping {
+
+        /**
+         * Mapped region.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * true if a view was given with getContent, the mapping cannot be released immediately.
+         */
+        private volatile boolean shared;
+
+        private Mapping(final MappedByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+    }
+}
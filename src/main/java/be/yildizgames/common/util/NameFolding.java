@@ -0,0 +1,168 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.Comparator;
+
+/**
+ * Strategy used by a Registerer to compare names.
+ * Characters are folded one by one while hashing and comparing, so lookups never build a normalized copy of a name.
+ *
+ * @author Grégory Van den Borre
+ */
+public enum NameFolding {
+
+    /**
+     * Names are compared exactly.
+     */
+    NONE,
+
+    /**
+     * Names are compared ignoring the case of the ASCII letters, other characters are compared exactly.
+     */
+    ASCII,
+
+    /**
+     * Names are compared ignoring the case, using the simple(one character to one character) Unicode case mapping.
+     * Characters outside the basic multilingual plane are compared exactly.
+     */
+    UNICODE;
+
+    /**
+     * Fold a character.
+     *
+     * @param c Character to fold.
+     * @return The folded character.
+     */
+    char fold(final char c) {
+        switch (this) {
+            case ASCII:
+                return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            case UNICODE:
+                return Character.toLowerCase(Character.toUpperCase(c));
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Fold a code point, code points outside the basic multilingual plane are not modified.
+     *
+     * @param codePoint Code point to fold.
+     * @return The folded code point.
+     */
+    int fold(final int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            return this.fold((char) codePoint);
+        }
+        return codePoint;
+    }
+
+    /**
+     * Build the folded copy of a name, used as a key where a folded name must be stored.
+     *
+     * @param name Name to fold.
+     * @return The folded name, the name itself if no folding is applied.
+     */
+    String fold(final String name) {
+        if (this == NONE) {
+            return name;
+        }
+        char[] chars = new char[name.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = this.fold(name.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Compare two names lexicographically with this folding.
+     *
+     * @param name1 First name.
+     * @param name2 Second name.
+     * @return A negative value, zero or a positive value if the first name is before, equal to or after the second.
+     */
+    int compare(final String name1, final String name2) {
+        int length = Math.min(name1.length(), name2.length());
+        for (int i = 0; i < length; i++) {
+            int difference = this.fold(name1.charAt(i)) - this.fold(name2.charAt(i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return name1.length() - name2.length();
+    }
+
+    /**
+     * @return A comparator ordering names with this folding, names equal once folded are equal for the comparator.
+     */
+    Comparator<String> comparator() {
+        return this == NONE ? Comparator.naturalOrder() : this::compare;
+    }
+
+    /**
+     * Check if a name starts with a prefix with this folding.
+     *
+     * @param name   Name to check.
+     * @param prefix Prefix to search for.
+     * @return true if the name starts with the prefix once folded.
+     */
+    boolean startsWith(final String name, final String prefix) {
+        if (this == NONE) {
+            return name.startsWith(prefix);
+        }
+        if (name.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (this.fold(name.charAt(i)) != this.fold(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if two names are equal with this folding.
+     *
+     * @param name1 First name.
+     * @param name2 Second name.
+     * @return true if both names are equal once folded.
+     */
+    boolean sameName(final String name1, final String name2) {
+        if (this == NONE) {
+            return name1.equals(name2);
+        }
+        if (name1.length() != name2.length()) {
+            return false;
+        }
+        for (int i = 0; i < name1.length(); i++) {
+            if (this.fold(name1.charAt(i)) != this.fold(name2.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,622 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Table associating names to int handles, and handles to elements.
+ * A handle is made of an index, dense and attributed when a name is added, and of the generation of that index.
+ * Removing a name tombstones it in the hash table and frees its index to be reused by the next added name, with the
+ * next generation, so the table size is bounded by the number of names present at the same time, and a stale handle
+ * resolves to nothing instead of the element of another name, until its index was reused 2048 times.
+ * Up to 1 048 576 names can be present at the same time.
+ * Writes must be done by one thread at a time, reads can be done concurrently without locking.
+ * Names can be searched from a String, a CharSequence, a char array or UTF-8 encoded bytes, the hash is computed the
+ * same way as String.hashCode, directly from the source, so no intermediate String is created.
+ * Characters are folded according to the table NameFolding while hashing and comparing.
+ *
+ * @author Grégory Van den Borre
+ */
+final class NameTable {
+
+    /**
+     * Access to array elements with release/acquire semantic, so a reader never sees a partially published element.
+     */
+    private static final VarHandle OBJECTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Access to slot values and generations with release/acquire semantic.
+     */
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Initial number of indexes.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Number of bits of a handle used for the index, the higher bits contain the generation.
+     */
+    private static final int INDEX_BITS = 20;
+
+    /**
+     * Mask to extract the index from a handle.
+     */
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+    /**
+     * Mask to keep a generation in the bits left in a positive handle.
+     */
+    private static final int GENERATION_MASK = 0x7FF;
+
+    /**
+     * Smallest code point that can be encoded with a given number of bytes, by number of bytes, smaller ones are
+     * overlong forms.
+     */
+    private static final int[] UTF8_MIN_CODE_POINT = {0, 0, 0x80, 0x800, 0x10000};
+
+    /**
+     * Slot value of a removed name, skipped by the lookups and dropped on the next rehash.
+     */
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * Names, by index, null for a free index.
+     * Arrays are always replaced in the order generations, names, elements, and read in the reverse order, so a
+     * reader never gets a generation array shorter than the other ones.
+     */
+    private volatile Object[] names = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Elements, by index, a removed element is null.
+     */
+    private volatile Object[] elements = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Current generation of every index, incremented when its name is removed.
+     */
+    private volatile int[] generations = new int[INITIAL_CAPACITY];
+
+    /**
+     * Open addressing hash table, containing the index + 1 for a name, 0 for an empty slot, TOMBSTONE for a removed
+     * name. Its size is a power of 2, kept at least twice the number of names and tombstones.
+     */
+    private volatile int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Folding applied to the characters when hashing and comparing names.
+     */
+    private final NameFolding folding;
+
+    /**
+     * Freed indexes, reused in the order they were freed to delay the reuse of a generation as much as possible.
+     */
+    private int[] free = new int[INITIAL_CAPACITY];
+
+    /**
+     * Position of the next index to reuse in the free indexes.
+     */
+    private int freeHead;
+
+    /**
+     * Number of freed indexes.
+     */
+    private int freeCount;
+
+    /**
+     * Number of attributed indexes, free ones included.
+     */
+    private int size;
+
+    /**
+     * Number of tombstones in the slots.
+     */
+    private int tombstones;
+
+    NameTable(final NameFolding folding) {
+        super();
+        this.folding = folding;
+    }
+
+    /**
+     * Extract the index from a handle.
+     *
+     * @param handle Handle to read.
+     * @return The handle index.
+     */
+    static int index(final int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    /**
+     * Retrieve the handle associated to a name.
+     *
+     * @param name Name to search.
+     * @return The handle associated to the name, or -1 if the name is not in the table.
+     */
+    int handle(final String name) {
+        int end = name.length();
+        return this.handle(name, 0, end, this.folding == NameFolding.NONE ? name.hashCode() : hash(this.folding, name, 0, end));
+    }
+
+    /**
+     * Retrieve the handle associated to a name.
+     *
+     * @param name Characters of the name to search.
+     * @return The handle associated to the name, or -1 if the name is not in the table.
+     */
+    int handle(final CharSequence name) {
+        return this.handle(name, 0, name.length());
+    }
+
+    /**
+     * Retrieve the handle associated to a name.
+     *
+     * @param name   Array containing the characters of the name to search.
+     * @param offset Index of the first character.
+     * @param length Number of characters.
+     * @return The handle associated to the name, or -1 if the name is not in the table.
+     */
+    int handle(final char[] name, final int offset, final int length) {
+        return this.handle((Object) name, offset, length);
+    }
+
+    /**
+     * Retrieve the handle associated to a UTF-8 encoded name.
+     *
+     * @param name   Array containing the UTF-8 bytes of the name to search.
+     * @param offset Index of the first byte.
+     * @param length Number of bytes.
+     * @return The handle associated to the name, or -1 if the name is not in the table.
+     */
+    int handleUtf8(final byte[] name, final int offset, final int length) {
+        return this.handle((Object) name, offset, length);
+    }
+
+    /**
+     * Retrieve the handle associated to a UTF-8 encoded name, the buffer position and limit are not modified.
+     *
+     * @param name   Buffer containing the UTF-8 bytes of the name to search.
+     * @param offset Absolute index of the first byte.
+     * @param length Number of bytes.
+     * @return The handle associated to the name, or -1 if the name is not in the table.
+     */
+    int handleUtf8(final ByteBuffer name, final int offset, final int length) {
+        return this.handle((Object) name, offset, length);
+    }
+
+    private int handle(final Object source, final int offset, final int length) {
+        int end = offset + length;
+        return this.handle(source, offset, end, hash(this.folding, source, offset, end));
+    }
+
+    private int handle(final Object source, final int offset, final int end, final int hash) {
+        int[] s = this.slots;
+        int mask = s.length - 1;
+        int i = spread(hash) & mask;
+        int slot;
+        while ((slot = (int) INTS.getAcquire(s, i)) != 0) {
+            if (slot != TOMBSTONE) {
+                // Read after the slot, so the arrays are large enough for its index.
+                int index = slot - 1;
+                Object[] n = this.names;
+                int[] g = this.generations;
+                int generation = (int) INTS.getAcquire(g, index);
+                if (matches(this.folding, (String) OBJECTS.getAcquire(n, index), source, offset, end)
+                        && (int) INTS.getAcquire(g, index) == generation) {
+                    return (generation << INDEX_BITS) | index;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the element associated to a handle.
+     *
+     * @param handle Handle of the element.
+     * @return The element, or null if the handle is unknown, stale, or its element was removed.
+     */
+    Object element(final int handle) {
+        Object[] e = this.elements;
+        int[] g = this.generations;
+        int index = handle & INDEX_MASK;
+        if (handle < 0 || index >= e.length) {
+            return null;
+        }
+        // The element is read before the generation, an element set after a reuse is never seen with the generation
+        // preceding that reuse.
+        Object element = OBJECTS.getAcquire(e, index);
+        return (int) INTS.getAcquire(g, index) == handle >>> INDEX_BITS ? element : null;
+    }
+
+    /**
+     * Retrieve the name associated to a handle.
+     *
+     * @param handle Handle of the name.
+     * @return The name, or null if the handle is unknown or stale.
+     */
+    String name(final int handle) {
+        Object[] n = this.names;
+        int[] g = this.generations;
+        int index = handle & INDEX_MASK;
+        if (handle < 0 || index >= n.length) {
+            return null;
+        }
+        Object name = OBJECTS.getAcquire(n, index);
+        return (int) INTS.getAcquire(g, index) == handle >>> INDEX_BITS ? (String) name : null;
+    }
+
+    /**
+     * @return The number of names in the table.
+     */
+    int count() {
+        return this.size - this.freeCount;
+    }
+
+    /**
+     * @return The folding applied to the characters when hashing and comparing names.
+     */
+    NameFolding getFolding() {
+        return this.folding;
+    }
+
+    /**
+     * Retrieve the handle associated to a name, a new one is attributed if the name is not in the table, reusing a
+     * freed index if any.
+     *
+     * @param name Name to add.
+     * @return The handle associated to the name.
+     * @throws IllegalStateException If the table already contains the maximum number of names.
+     */
+    int add(final String name) {
+        int existing = this.handle(name);
+        if (existing != -1) {
+            return existing;
+        }
+        int index;
+        if (this.freeCount > 0) {
+            index = this.free[this.freeHead];
+            this.freeHead = this.freeHead + 1 == this.free.length ? 0 : this.freeHead + 1;
+            this.freeCount--;
+        } else {
+            index = this.size;
+            if (index == INDEX_MASK + 1) {
+                throw new IllegalStateException("Name table is full: " + index + " names.");
+            }
+            if (index == this.names.length) {
+                this.grow(index * 2);
+            }
+            this.size++;
+        }
+        OBJECTS.setRelease(this.names, index, name);
+        int live = this.size - this.freeCount;
+        if ((live + this.tombstones) * 2 > this.slots.length) {
+            this.rehash(live * 4 > this.slots.length ? this.slots.length * 2 : this.slots.length);
+        } else {
+            this.insert(this.slots, name, index);
+        }
+        return (this.generations[index] << INDEX_BITS) | index;
+    }
+
+    /**
+     * Set the element associated to a handle.
+     *
+     * @param handle  Handle of the element.
+     * @param element Element to set.
+     */
+    void set(final int handle, final Object element) {
+        OBJECTS.setRelease(this.elements, handle & INDEX_MASK, element);
+    }
+
+    /**
+     * Remove a name and its element, its handle becomes stale and its index is freed to be reused.
+     * Nothing is done if the handle is unknown or already stale.
+     *
+     * @param handle Handle of the name to remove.
+     */
+    void remove(final int handle) {
+        String name = this.name(handle);
+        if (name == null) {
+            return;
+        }
+        int index = handle & INDEX_MASK;
+        OBJECTS.setRelease(this.elements, index, null);
+        INTS.setRelease(this.generations, index, (this.generations[index] + 1) & GENERATION_MASK);
+        OBJECTS.setRelease(this.names, index, null);
+        int[] s = this.slots;
+        int mask = s.length - 1;
+        int hash = this.folding == NameFolding.NONE ? name.hashCode() : hash(this.folding, name, 0, name.length());
+        int i = spread(hash) & mask;
+        while (s[i] != index + 1) {
+            i = (i + 1) & mask;
+        }
+        INTS.setRelease(s, i, TOMBSTONE);
+        this.tombstones++;
+        int tail = this.freeHead + this.freeCount;
+        this.free[tail < this.free.length ? tail : tail - this.free.length] = index;
+        this.freeCount++;
+    }
+
+    /**
+     * Make sure the table can receive a given number of new names without being resized.
+     *
+     * @param additional Number of new names expected.
+     */
+    void ensureCapacity(final int additional) {
+        int capacity = this.size + Math.max(0, additional - this.freeCount);
+        if (capacity > this.names.length) {
+            this.grow(Integer.highestOneBit(capacity - 1) << 1);
+        }
+        int live = this.size - this.freeCount + additional;
+        if ((live + this.tombstones) * 2 > this.slots.length) {
+            this.rehash(Math.max(this.slots.length, Integer.highestOneBit(live * 2 - 1) << 1));
+        }
+    }
+
+    private void grow(final int capacity) {
+        int[] newGenerations = new int[capacity];
+        System.arraycopy(this.generations, 0, newGenerations, 0, this.size);
+        this.generations = newGenerations;
+        Object[] newNames = new Object[capacity];
+        System.arraycopy(this.names, 0, newNames, 0, this.size);
+        this.names = newNames;
+        Object[] newElements = new Object[capacity];
+        System.arraycopy(this.elements, 0, newElements, 0, this.size);
+        this.elements = newElements;
+        int[] newFree = new int[capacity];
+        for (int i = 0; i < this.freeCount; i++) {
+            int position = this.freeHead + i;
+            newFree[i] = this.free[position < this.free.length ? position : position - this.free.length];
+        }
+        this.free = newFree;
+        this.freeHead = 0;
+    }
+
+    private void rehash(final int capacity) {
+        int[] newSlots = new int[capacity];
+        Object[] n = this.names;
+        for (int i = 0; i < this.size; i++) {
+            if (n[i] != null) {
+                this.insert(newSlots, (String) n[i], i);
+            }
+        }
+        this.slots = newSlots;
+        this.tombstones = 0;
+    }
+
+    private void insert(final int[] slots, final String name, final int index) {
+        int mask = slots.length - 1;
+        int hash = this.folding == NameFolding.NONE ? name.hashCode() : hash(this.folding, name, 0, name.length());
+        int i = spread(hash) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        INTS.setRelease(slots, i, index + 1);
+    }
+
+    /**
+     * Compute the String.hashCode value of the folded characters contained in a source.
+     *
+     * @param folding Folding to apply to the characters.
+     * @param source Char sequence, char array, or UTF-8 encoded byte array or buffer.
+     * @param offset Index of the first character or byte.
+     * @param end    Index after the last character or byte.
+     * @return The hash of the characters.
+     */
+    private static int hash(final NameFolding folding, final Object source, final int offset, final int end) {
+        int hash = 0;
+        if (source instanceof char[]) {
+            char[] chars = (char[]) source;
+            for (int i = offset; i < end; i++) {
+                hash = 31 * hash + folding.fold(chars[i]);
+            }
+        } else if (source instanceof CharSequence) {
+            CharSequence chars = (CharSequence) source;
+            for (int i = offset; i < end; i++) {
+                hash = 31 * hash + folding.fold(chars.charAt(i));
+            }
+        } else {
+            int i = offset;
+            while (i < end) {
+                int codePoint = folding.fold(decodeUtf8(source, i, end));
+                if (codePoint < 0) {
+                    return hash;
+                }
+                if (Character.isBmpCodePoint(codePoint)) {
+                    hash = 31 * hash + codePoint;
+                } else {
+                    hash = 31 * hash + Character.highSurrogate(codePoint);
+                    hash = 31 * hash + Character.lowSurrogate(codePoint);
+                }
+                i += utf8Length(byteAt(source, i));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Compute the hash of a name once folded, equal to String.hashCode without folding.
+     *
+     * @param folding Folding to apply to the characters.
+     * @param name    Name to hash.
+     * @return The hash of the folded name.
+     */
+    static int hash(final NameFolding folding, final String name) {
+        return folding == NameFolding.NONE ? name.hashCode() : hash(folding, name, 0, name.length());
+    }
+
+    /**
+     * Check if a name is equal to UTF-8 encoded bytes once folded, without decoding them into a String.
+     *
+     * @param folding Folding to apply to the characters.
+     * @param name    Name to compare.
+     * @param bytes   Buffer containing the UTF-8 bytes.
+     * @param offset  Absolute index of the first byte.
+     * @param length  Number of bytes.
+     * @return true if the name and the decoded bytes are equal once folded.
+     */
+    static boolean matchesUtf8(final NameFolding folding, final String name, final ByteBuffer bytes, final int offset, final int length) {
+        return matches(folding, name, bytes, offset, offset + length);
+    }
+
+    /**
+     * Check if a name is equal to the characters contained in a source, once folded.
+     *
+     * @param folding Folding to apply to the characters.
+     * @param name   Name to compare.
+     * @param source Char sequence, char array, or UTF-8 encoded byte array or buffer.
+     * @param offset Index of the first character or byte.
+     * @param end    Index after the last character or byte.
+     * @return true if the name and the source characters are equal.
+     */
+    private static boolean matches(final NameFolding folding, final String name, final Object source, final int offset, final int end) {
+        if (name == null) {
+            return false;
+        }
+        if (source instanceof char[]) {
+            char[] chars = (char[]) source;
+            if (name.length() != end - offset) {
+                return false;
+            }
+            for (int i = offset; i < end; i++) {
+                if (folding.fold(name.charAt(i - offset)) != folding.fold(chars[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (source instanceof CharSequence) {
+            CharSequence chars = (CharSequence) source;
+            if (folding == NameFolding.NONE) {
+                return name.contentEquals(chars);
+            }
+            if (name.length() != end - offset) {
+                return false;
+            }
+            for (int i = offset; i < end; i++) {
+                if (folding.fold(name.charAt(i - offset)) != folding.fold(chars.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int j = 0;
+        int i = offset;
+        while (i < end) {
+            int codePoint = folding.fold(decodeUtf8(source, i, end));
+            if (codePoint < 0) {
+                return false;
+            }
+            if (Character.isBmpCodePoint(codePoint)) {
+                if (j >= name.length() || folding.fold(name.charAt(j)) != codePoint) {
+                    return false;
+                }
+                j++;
+            } else {
+                if (j + 1 >= name.length() || name.charAt(j) != Character.highSurrogate(codePoint)
+                        || name.charAt(j + 1) != Character.lowSurrogate(codePoint)) {
+                    return false;
+                }
+                j += 2;
+            }
+            i += utf8Length(byteAt(source, i));
+        }
+        return j == name.length();
+    }
+
+    /**
+     * Decode the code point starting at a given index in UTF-8 encoded bytes.
+     *
+     * @param source Byte array or buffer.
+     * @param index  Index of the first byte of the code point.
+     * @param end    Index after the last byte that can be read.
+     * @return The code point, or -1 if the bytes are not valid UTF-8, overlong forms, surrogates and values above
+     * U+10FFFF being rejected as StandardCharsets.UTF_8 does.
+     */
+    private static int decodeUtf8(final Object source, final int index, final int end) {
+        int lead = byteAt(source, index);
+        int length = utf8Length(lead);
+        if (length < 0 || index + length > end) {
+            return -1;
+        }
+        if (length == 1) {
+            return lead;
+        }
+        int codePoint = lead & (0xFF >>> (length + 1));
+        for (int i = 1; i < length; i++) {
+            int b = byteAt(source, index + i);
+            if ((b & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        if (codePoint < UTF8_MIN_CODE_POINT[length] || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return -1;
+        }
+        return codePoint;
+    }
+
+    /**
+     * Compute the number of bytes of a UTF-8 encoded code point from its first byte.
+     *
+     * @param lead First byte of the code point.
+     * @return The number of bytes, or -1 if the byte cannot start a code point.
+     */
+    private static int utf8Length(final int lead) {
+        if (lead < 0x80) {
+            return 1;
+        } else if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        } else if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        } else if ((lead & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return -1;
+    }
+
+    private static int byteAt(final Object source, final int index) {
+        if (source instanceof byte[]) {
+            return ((byte[]) source)[index] & 0xFF;
+        }
+        return ((ByteBuffer) source).get(index) & 0xFF;
+    }
+
+    /**
+     * Spread the hash bits, to avoid clustering for hash codes only differing in their higher bits.
+     *
+     * @param hash Hash to spread.
+     * @return The spread value.
+     */
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
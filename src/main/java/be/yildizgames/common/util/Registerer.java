@@ -24,13 +24,43 @@
 
 package be.yildizgames.common.util;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidParameterException;
+import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Register objects to be retrieved by their name.
+ * A concurrent registerer can be shared between threads without external locking, lookups never block.
+ * Every registered name is associated to an int handle, valid while the element is registered, that can be used
+ * for faster lookups, or to refer to an element without sending its name, i.e. in network messages.
+ * Handles of removed elements are recycled with a new generation, so the registerer does not grow with the number
+ * of names registered over its lifetime, and a stale handle is not resolved to the element of another name, unless
+ * its index was reused 2048 times. Up to 1 048 576 elements can be registered at the same time.
+ * Elements can also be retrieved from a CharSequence, a char array or UTF-8 encoded bytes without creating any
+ * String, i.e. when decoding a name received from the network.
+ * Every registration or removal increments the registerer version, listeners are notified of the changes in order,
+ * and a bounded log of the last changes can be kept to let consumers catch up from a given version.
+ * An optional index sorted by name can be maintained to search elements by name prefix.
+ * Metrics(lookups, hits, misses, NoResult calls, registrations and removals) can be enabled to monitor the usage.
+ * With getOrCreate, the NoResult behavior is used as a loader, its result is registered, and concurrent calls for
+ * the same missing name wait for a single load.
+ * A NameFolding can be provided to compare names ignoring their case, without building any lower case copy.
  *
  * @param <T> Type to register.
  * @author Grégory Van den Borre
@@ -41,19 +71,71 @@ public final class Registerer<T extends Registerable> {
      * Map containing the Registerable elements, the key is the name and the
      * value is the element.
      */
-    private final Map<String, T> list = new HashMap<>();
+    private final Map<String, T> list;
+
+    /**
+     * Handles associated to the registered names, a removed name releases its handle to be recycled for another name
+     * with a new generation.
+     */
+    private final NameTable handles;
+
+    /**
+     * Lock used to keep the map and the handles consistent when registering or removing elements.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Loads in progress in getOrCreate, by folded name, so names equal once folded share the same load.
+     */
+    private final Map<String, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners notified of every change.
+     */
+    private final List<RegistererListener<T>> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Behavior to call when no result is found for a given name.
      */
     private final NoResult<T> noResult;
 
+    /**
+     * Number of changes done since creation.
+     */
+    private volatile long version;
+
+    /**
+     * Last changes, the index is the version modulo the log length, null if the log is not enabled.
+     */
+    private RegistererChange<?>[] changeLog;
+
+    /**
+     * Version when the change log was enabled, older changes are not in the log.
+     */
+    private long changeLogStart;
+
+    /**
+     * Elements sorted by name with the registerer folding, null if the prefix index is not enabled.
+     */
+    private volatile NavigableMap<String, T> prefixIndex;
+
+    /**
+     * Usage counters, null if the metrics are not enabled.
+     */
+    private RegistererMetrics metrics;
+
     /**
      * Default constructor, use the default NoResult behavior when no result is
      * found(throw an İnvalidParameterException). Private to be used only by the
      * factory.
+     *
+     * @param map     Map to use to store the elements.
+     * @param folding Folding used to compare the names.
      */
-    private Registerer() {
+    private Registerer(final Map<String, T> map, final NameFolding folding) {
         super();
+        this.list = map;
+        this.handles = new NameTable(folding);
         this.noResult = new DefaultNoResult();
     }
 
@@ -61,10 +143,14 @@ public final class Registerer<T extends Registerable> {
      * Full constructor, use a given NoResult behavior when no result is found.
      * Private to be used only by the factory.
      *
+     * @param map              Map to use to store the elements.
      * @param noResultBehavior Given NoResult to use when no result is found.
+     * @param folding          Folding used to compare the names.
      */
-    private Registerer(final NoResult<T> noResultBehavior) {
+    private Registerer(final Map<String, T> map, final NoResult<T> noResultBehavior, final NameFolding folding) {
         super();
+        this.list = map;
+        this.handles = new NameTable(folding);
         this.noResult = noResultBehavior;
     }
 
@@ -76,7 +162,7 @@ public final class Registerer<T extends Registerable> {
      * @return A new Registerer instance with default NoResult behavior.
      */
     public static <T extends Registerable> Registerer<T> newRegisterer() {
-        return new Registerer<>();
+        return new Registerer<>(new HashMap<>(), NameFolding.NONE);
     }
 
     /**
@@ -87,7 +173,81 @@ public final class Registerer<T extends Registerable> {
      * @return A new Registerer instance.
      */
     public static <T extends Registerable> Registerer<T> newRegisterer(final NoResult<T> noResult) {
-        return new Registerer<>(noResult);
+        return new Registerer<>(new HashMap<>(), noResult, NameFolding.NONE);
+    }
+
+    /**
+     * Factory to build a new Registerer instance comparing names with a given folding, default NoResult is
+     * applied(throw InvalidParameterException).
+     *
+     * @param <T>     Type to use in the registerer.
+     * @param folding Folding used to compare the names.
+     * @return A new Registerer instance with default NoResult behavior.
+     */
+    public static <T extends Registerable> Registerer<T> newRegisterer(final NameFolding folding) {
+        return new Registerer<>(new HashMap<>(), folding);
+    }
+
+    /**
+     * Factory to build a new Registerer instance comparing names with a given folding.
+     *
+     * @param <T>      Type to use in the registerer.
+     * @param noResult Behavior to use when no result is found for a given name.
+     * @param folding  Folding used to compare the names.
+     * @return A new Registerer instance.
+     */
+    public static <T extends Registerable> Registerer<T> newRegisterer(final NoResult<T> noResult, final NameFolding folding) {
+        return new Registerer<>(new HashMap<>(), noResult, folding);
+    }
+
+    /**
+     * Factory to build a new thread safe Registerer instance, default NoResult is
+     * applied(throw InvalidParameterException).
+     * Lookups are lock free, registration and removal are atomic.
+     *
+     * @param <T> Type to use in the registerer.
+     * @return A new concurrent Registerer instance with default NoResult behavior.
+     */
+    public static <T extends Registerable> Registerer<T> newConcurrentRegisterer() {
+        return new Registerer<>(new ConcurrentHashMap<>(), NameFolding.NONE);
+    }
+
+    /**
+     * Factory to build a new thread safe Registerer instance.
+     * Lookups are lock free, registration and removal are atomic.
+     *
+     * @param <T>      Type to use in the registerer.
+     * @param noResult Behavior to use when no result is found for a given name.
+     * @return A new concurrent Registerer instance.
+     */
+    public static <T extends Registerable> Registerer<T> newConcurrentRegisterer(final NoResult<T> noResult) {
+        return new Registerer<>(new ConcurrentHashMap<>(), noResult, NameFolding.NONE);
+    }
+
+    /**
+     * Factory to build a new thread safe Registerer instance comparing names with a given folding, default NoResult
+     * is applied(throw InvalidParameterException).
+     * Lookups are lock free, registration and removal are atomic.
+     *
+     * @param <T>     Type to use in the registerer.
+     * @param folding Folding used to compare the names.
+     * @return A new concurrent Registerer instance with default NoResult behavior.
+     */
+    public static <T extends Registerable> Registerer<T> newConcurrentRegisterer(final NameFolding folding) {
+        return new Registerer<>(new ConcurrentHashMap<>(), folding);
+    }
+
+    /**
+     * Factory to build a new thread safe Registerer instance comparing names with a given folding.
+     * Lookups are lock free, registration and removal are atomic.
+     *
+     * @param <T>      Type to use in the registerer.
+     * @param noResult Behavior to use when no result is found for a given name.
+     * @param folding  Folding used to compare the names.
+     * @return A new concurrent Registerer instance.
+     */
+    public static <T extends Registerable> Registerer<T> newConcurrentRegisterer(final NoResult<T> noResult, final NameFolding folding) {
+        return new Registerer<>(new ConcurrentHashMap<>(), noResult, folding);
     }
 
     /**
@@ -98,9 +258,137 @@ public final class Registerer<T extends Registerable> {
      * @return The object matching the name.
      */
     public T get(final String name) {
-        T result = this.list.get(name);
+        T result = this.record(this.lookup(name));
         if (result == null) {
-            return this.noResult.resultNotFound(name);
+            return this.notFound(name);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve an element from its name, if nothing matches, the NoResult behavior is called to create it, and its
+     * result is registered.
+     * If several threads call this method for the same missing name, the NoResult behavior is called only once, the
+     * other threads wait for its result. If it fails, the exception is thrown to all the waiting threads and the next
+     * call will try again.
+     *
+     * @param name Name of the object to retrieve.
+     * @return The object matching the name, or null if the NoResult behavior returned null.
+     * @throws InvalidParameterException If the NoResult behavior creates an element with another name.
+     */
+    public T getOrCreate(final String name) {
+        T result = this.record(this.lookup(name));
+        if (result != null) {
+            return result;
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        String key = this.handles.getFolding().fold(name);
+        CompletableFuture<T> existing = this.loading.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            T created = this.lookup(name);
+            if (created == null) {
+                created = this.create(name);
+            }
+            future.complete(created);
+            return created;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Retrieve an element from its handle.
+     *
+     * @param handle Handle of the object to retrieve.
+     * @return The object matching the handle.
+     * @throws InvalidParameterException If no element is registered with that handle, i.e. it was removed.
+     */
+    public T get(final int handle) {
+        T result = this.record(this.elementAt(handle));
+        if (result == null) {
+            throw new InvalidParameterException("Handle " + handle + " not found");
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve an element from the characters of its name, if nothing matches, the NoResult
+     * behavior is called. No String is created unless the NoResult behavior is called.
+     *
+     * @param name Characters of the name of the object to retrieve.
+     * @return The object matching the name.
+     */
+    public T get(final CharSequence name) {
+        T result = this.record(this.elementAt(this.handles.handle(name)));
+        if (result == null) {
+            return this.notFound(name.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve an element from the characters of its name, if nothing matches, the NoResult
+     * behavior is called. No String is created unless the NoResult behavior is called.
+     *
+     * @param name   Array containing the characters of the name of the object to retrieve.
+     * @param offset Index of the first character of the name.
+     * @param length Number of characters of the name.
+     * @return The object matching the name.
+     */
+    public T get(final char[] name, final int offset, final int length) {
+        T result = this.record(this.elementAt(this.handles.handle(name, offset, length)));
+        if (result == null) {
+            return this.notFound(new String(name, offset, length));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve an element from its UTF-8 encoded name, if nothing matches, the NoResult
+     * behavior is called. No String is created unless the NoResult behavior is called.
+     *
+     * @param name   Array containing the UTF-8 bytes of the name of the object to retrieve.
+     * @param offset Index of the first byte of the name.
+     * @param length Number of bytes of the name.
+     * @return The object matching the name.
+     */
+    public T getUtf8(final byte[] name, final int offset, final int length) {
+        T result = this.record(this.elementAt(this.handles.handleUtf8(name, offset, length)));
+        if (result == null) {
+            return this.notFound(new String(name, offset, length, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve an element from its UTF-8 encoded name, if nothing matches, the NoResult
+     * behavior is called. No String is created unless the NoResult behavior is called.
+     * The buffer position and limit are not modified.
+     *
+     * @param name   Buffer containing the UTF-8 bytes of the name of the object to retrieve.
+     * @param offset Absolute index of the first byte of the name.
+     * @param length Number of bytes of the name.
+     * @return The object matching the name.
+     */
+    public T getUtf8(final ByteBuffer name, final int offset, final int length) {
+        T result = this.record(this.elementAt(this.handles.handleUtf8(name, offset, length)));
+        if (result == null) {
+            ByteBuffer slice = name.duplicate();
+            slice.limit(offset + length).position(offset);
+            return this.notFound(StandardCharsets.UTF_8.decode(slice).toString());
         }
         return result;
     }
@@ -112,30 +400,494 @@ public final class Registerer<T extends Registerable> {
      * @return An optional result.
      */
     public Optional<T> find(final String name) {
-        return Optional.ofNullable(this.list.get(name));
+        return Optional.ofNullable(this.record(this.lookup(name)));
+    }
+
+    /**
+     * Search for an element from the characters of its name, no String is created.
+     *
+     * @param name Characters of the name of the object to search for.
+     * @return An optional result.
+     */
+    public Optional<T> find(final CharSequence name) {
+        return Optional.ofNullable(this.record(this.elementAt(this.handles.handle(name))));
+    }
+
+    /**
+     * Search for an element from the characters of its name, no String is created.
+     *
+     * @param name   Array containing the characters of the name of the object to search for.
+     * @param offset Index of the first character of the name.
+     * @param length Number of characters of the name.
+     * @return An optional result.
+     */
+    public Optional<T> find(final char[] name, final int offset, final int length) {
+        return Optional.ofNullable(this.record(this.elementAt(this.handles.handle(name, offset, length))));
+    }
+
+    /**
+     * Search for an element from its UTF-8 encoded name, no String is created.
+     *
+     * @param name   Array containing the UTF-8 bytes of the name of the object to search for.
+     * @param offset Index of the first byte of the name.
+     * @param length Number of bytes of the name.
+     * @return An optional result.
+     */
+    public Optional<T> findUtf8(final byte[] name, final int offset, final int length) {
+        return Optional.ofNullable(this.record(this.elementAt(this.handles.handleUtf8(name, offset, length))));
+    }
+
+    /**
+     * Search for an element from its UTF-8 encoded name, no String is created.
+     * The buffer position and limit are not modified.
+     *
+     * @param name   Buffer containing the UTF-8 bytes of the name of the object to search for.
+     * @param offset Absolute index of the first byte of the name.
+     * @param length Number of bytes of the name.
+     * @return An optional result.
+     */
+    public Optional<T> findUtf8(final ByteBuffer name, final int offset, final int length) {
+        return Optional.ofNullable(this.record(this.elementAt(this.handles.handleUtf8(name, offset, length))));
+    }
+
+    /**
+     * Search for an element from its handle.
+     *
+     * @param handle Handle of the object to search for.
+     * @return An optional result.
+     */
+    public Optional<T> find(final int handle) {
+        return Optional.ofNullable(this.record(this.elementAt(handle)));
+    }
+
+    /**
+     * Retrieve the handle associated to a registered name.
+     *
+     * @param name Name of the object.
+     * @return The handle associated to the name.
+     * @throws InvalidParameterException If no element is registered with that name.
+     */
+    public int getHandle(final String name) {
+        int handle = this.handles.handle(name);
+        if (handle == -1) {
+            throw new InvalidParameterException(name + " not found");
+        }
+        return handle;
     }
 
     /**
      * Register a new element, if the element name is already registered, an
      * İnvalıidParameterExeption is thrown.
+     * The check and the insertion are done in a single atomic operation.
      *
      * @param element Object to insert.
      */
     public void register(final T element) {
-        if (this.list.containsKey(element.getName())) {
-            throw new InvalidParameterException(this.getClass().getTypeParameters()[0].getGenericDeclaration().getSimpleName()
-                    + " associated with name " + element.getName() + " already exists.");
+        this.registerAndGetHandle(element);
+    }
+
+    /**
+     * Register a new element, if the element name is already registered, an
+     * İnvalıidParameterExeption is thrown.
+     *
+     * @param element Object to insert.
+     * @return The handle associated to the element name.
+     */
+    public int registerAndGetHandle(final T element) {
+        synchronized (this.lock) {
+            String name = element.getName();
+            int handle = this.handles.add(name);
+            if (this.handles.element(handle) != null) {
+                throw this.alreadyExists(name);
+            }
+            this.list.put(name, element);
+            this.handles.set(handle, element);
+            this.notifyListeners(RegistererChange.Type.REGISTERED, element, this.changed(RegistererChange.Type.REGISTERED, element));
+            return handle;
         }
-        this.list.put(element.getName(), element);
     }
 
     /**
-     * Unregister an element.
+     * Register several elements at once, either all elements are registered or none.
+     * If some names are already registered, or used several times in the elements, an InvalidParameterException
+     * listing all those names is thrown and nothing is registered.
+     * The handles are resized only once for all the elements, and every name is searched only once: names are first
+     * added without their element, so lookups do not see them, and removed again if a duplicate is found.
+     *
+     * @param elements Objects to insert.
+     */
+    public void registerAll(final Collection<T> elements) {
+        synchronized (this.lock) {
+            this.handles.ensureCapacity(elements.size());
+            int[] added = new int[elements.size()];
+            int addedCount = 0;
+            Set<String> duplicates = null;
+            for (T element : elements) {
+                int count = this.handles.count();
+                int handle = this.handles.add(element.getName());
+                if (this.handles.count() != count) {
+                    added[addedCount++] = handle;
+                } else {
+                    if (duplicates == null) {
+                        duplicates = new LinkedHashSet<>();
+                    }
+                    duplicates.add(element.getName());
+                }
+            }
+            if (duplicates != null) {
+                for (int i = 0; i < addedCount; i++) {
+                    this.handles.remove(added[i]);
+                }
+                throw this.alreadyExists(StringUtil.toString(duplicates));
+            }
+            long firstVersion = this.version + 1;
+            int i = 0;
+            for (T element : elements) {
+                this.handles.set(added[i++], element);
+                this.list.put(element.getName(), element);
+                this.changed(RegistererChange.Type.REGISTERED, element);
+            }
+            long elementVersion = firstVersion;
+            for (T element : elements) {
+                this.notifyListeners(RegistererChange.Type.REGISTERED, element, elementVersion++);
+            }
+        }
+    }
+
+    /**
+     * Register several elements at once, either all elements are registered or none.
+     * If some names are already registered, or used several times in the elements, an InvalidParameterException
+     * listing all those names is thrown and nothing is registered.
+     *
+     * @param elements Objects to insert.
+     */
+    public void registerAll(final Stream<T> elements) {
+        this.registerAll(elements.collect(Collectors.toList()));
+    }
+
+    /**
+     * Unregister an element, its handle is released and will not resolve anymore.
      *
      * @param element Object to remove.
      */
     public void remove(final T element) {
-        this.list.remove(element.getName());
+        synchronized (this.lock) {
+            int handle = this.handles.handle(element.getName());
+            T removed = this.elementAt(handle);
+            if (removed != null) {
+                this.handles.remove(handle);
+                this.list.remove(removed.getName());
+                this.notifyListeners(RegistererChange.Type.REMOVED, removed, this.changed(RegistererChange.Type.REMOVED, removed));
+            }
+        }
+    }
+
+    /**
+     * @return The number of changes(registrations and removals) done in this registerer.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Add a listener to be notified of the next changes.
+     *
+     * @param listener Listener to add.
+     */
+    public void addListener(final RegistererListener<T> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener Listener to remove.
+     */
+    public void removeListener(final RegistererListener<T> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Start keeping the last changes, to be retrieved with changesSince.
+     * Only the changes done after this call are kept.
+     *
+     * @param capacity Maximum number of changes to keep.
+     */
+    public void enableChangeLog(final int capacity) {
+        Checker.exceptionNotGreaterThanZero(capacity);
+        synchronized (this.lock) {
+            this.changeLog = new RegistererChange<?>[capacity];
+            this.changeLogStart = this.version;
+        }
+    }
+
+    /**
+     * Retrieve the changes done after a given version, in order.
+     *
+     * @param since Version already known by the caller.
+     * @return The changes with a greater version than the provided one, empty if none.
+     * @throws IllegalStateException     If the change log is not enabled.
+     * @throws InvalidParameterException If the changes after that version are no longer in the log, or if the version
+     *                                   does not exist yet.
+     */
+    @SuppressWarnings("unchecked")
+    public List<RegistererChange<T>> changesSince(final long since) {
+        synchronized (this.lock) {
+            if (this.changeLog == null) {
+                throw new IllegalStateException("Change log is not enabled.");
+            }
+            long current = this.version;
+            if (since > current || since < this.changeLogStart || current - since > this.changeLog.length) {
+                throw new InvalidParameterException("Changes since version " + since + " are not available, current version is " + current);
+            }
+            List<RegistererChange<T>> result = new ArrayList<>((int) (current - since));
+            for (long v = since + 1; v <= current; v++) {
+                result.add((RegistererChange<T>) this.changeLog[(int) (v % this.changeLog.length)]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Start maintaining an index of the elements sorted by name, needed to use findByPrefix and sortedByName.
+     * Names are sorted and matched with the registerer folding.
+     * The index is updated on every registration and removal.
+     */
+    public void enablePrefixIndex() {
+        synchronized (this.lock) {
+            if (this.prefixIndex == null) {
+                NavigableMap<String, T> index = new ConcurrentSkipListMap<>(this.handles.getFolding().comparator());
+                index.putAll(this.list);
+                this.prefixIndex = index;
+            }
+        }
+    }
+
+    /**
+     * Search for the elements whose name starts with a given prefix, sorted by name, with the registerer folding.
+     * The stream is lazy, matching elements are read from the index while it is consumed.
+     *
+     * @param prefix Prefix to search for.
+     * @param limit  Maximum number of elements to return.
+     * @return A stream of the matching elements.
+     * @throws IllegalStateException If the prefix index is not enabled.
+     */
+    public Stream<T> findByPrefix(final String prefix, final int limit) {
+        Checker.exceptionNotPositive(limit);
+        NameFolding folding = this.handles.getFolding();
+        return this.getPrefixIndex()
+                .tailMap(prefix, true)
+                .entrySet()
+                .stream()
+                .takeWhile(e -> folding.startsWith(e.getKey(), prefix))
+                .limit(limit)
+                .map(Map.Entry::getValue);
+    }
+
+    /**
+     * Provide all the elements, sorted by name.
+     * The stream is lazy, elements are read from the index while it is consumed.
+     *
+     * @return A stream of all the elements.
+     * @throws IllegalStateException If the prefix index is not enabled.
+     */
+    public Stream<T> sortedByName() {
+        return this.getPrefixIndex().values().stream();
+    }
+
+    /**
+     * Start counting lookups, hits, misses, NoResult calls, registrations and removals.
+     * Meant to be called before sharing the registerer, other threads may not count their first operations otherwise.
+     */
+    public void enableMetrics() {
+        synchronized (this.lock) {
+            if (this.metrics == null) {
+                this.metrics = new RegistererMetrics();
+            }
+        }
+    }
+
+    /**
+     * @return A snapshot of the current metric values.
+     * @throws IllegalStateException If the metrics are not enabled.
+     */
+    public RegistererStatistics getStatistics() {
+        RegistererMetrics m = this.metrics;
+        if (m == null) {
+            throw new IllegalStateException("Metrics are not enabled.");
+        }
+        return m.snapshot();
+    }
+
+    /**
+     * Build an immutable read only view of the elements currently registered, using the same NoResult behavior.
+     * Meant for registerers filled once and never modified afterwards, later changes are not visible in the view.
+     *
+     * @return A frozen view of this registerer.
+     */
+    public FrozenRegisterer<T> freeze() {
+        synchronized (this.lock) {
+            return new FrozenRegisterer<>(this.list.values(), this.noResult, this.handles.getFolding());
+        }
+    }
+
+    /**
+     * @return A copy of the currently registered elements.
+     */
+    List<T> values() {
+        synchronized (this.lock) {
+            return new ArrayList<>(this.list.values());
+        }
+    }
+
+    /**
+     * Call the NoResult behavior to create a missing element, and register it unless an element with the same name
+     * was registered in the meantime.
+     *
+     * @param name Name of the missing element.
+     * @return The registered element, or null if the NoResult behavior returned null.
+     */
+    private T create(final String name) {
+        T created = this.notFound(name);
+        if (created == null) {
+            return null;
+        }
+        if (!this.handles.getFolding().sameName(name, created.getName())) {
+            throw new InvalidParameterException("Element created for " + name + " is named " + created.getName());
+        }
+        synchronized (this.lock) {
+            T current = this.lookup(name);
+            if (current != null) {
+                return current;
+            }
+            this.registerAndGetHandle(created);
+            return created;
+        }
+    }
+
+    /**
+     * Retrieve an element from its name, using the map unless names are folded.
+     *
+     * @param name Name of the element.
+     * @return The element, or null if not found.
+     */
+    private T lookup(final String name) {
+        if (this.handles.getFolding() == NameFolding.NONE) {
+            return this.list.get(name);
+        }
+        return this.elementAt(this.handles.handle(name));
+    }
+
+    /**
+     * Count a lookup result, if metrics are enabled.
+     *
+     * @param result Lookup result, null if nothing was found.
+     * @return The result.
+     */
+    private T record(final T result) {
+        RegistererMetrics m = this.metrics;
+        if (m != null) {
+            if (result == null) {
+                m.miss();
+            } else {
+                m.hit();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Call the NoResult behavior.
+     *
+     * @param name Name of the element not found.
+     * @return The NoResult behavior value.
+     */
+    private T notFound(final String name) {
+        RegistererMetrics m = this.metrics;
+        if (m != null) {
+            m.noResult();
+        }
+        return this.noResult.resultNotFound(name);
+    }
+
+    private NavigableMap<String, T> getPrefixIndex() {
+        NavigableMap<String, T> index = this.prefixIndex;
+        if (index == null) {
+            throw new IllegalStateException("Prefix index is not enabled.");
+        }
+        return index;
+    }
+
+    /**
+     * Increment the version, update the prefix index, and record a change, must be called while holding the lock.
+     * Listeners are notified with notifyListeners once all the changes of an operation are done.
+     *
+     * @param type    Kind of change.
+     * @param element Element registered or removed.
+     * @return The version after the change.
+     */
+    private long changed(final RegistererChange.Type type, final T element) {
+        long newVersion = this.version + 1;
+        this.version = newVersion;
+        if (this.metrics != null) {
+            if (type == RegistererChange.Type.REGISTERED) {
+                this.metrics.registration();
+            } else {
+                this.metrics.removal();
+            }
+        }
+        if (this.prefixIndex != null) {
+            if (type == RegistererChange.Type.REGISTERED) {
+                this.prefixIndex.put(element.getName(), element);
+            } else {
+                this.prefixIndex.remove(element.getName());
+            }
+        }
+        if (this.changeLog != null) {
+            this.changeLog[(int) (newVersion % this.changeLog.length)] = new RegistererChange<>(type, element, newVersion);
+        }
+        return newVersion;
+    }
+
+    /**
+     * Notify the listeners of a change, must be called while holding the lock, once the registerer is consistent.
+     * An exception thrown by a listener does not prevent the other ones to be notified, and is given to the current
+     * thread uncaught exception handler.
+     *
+     * @param type          Kind of change.
+     * @param element       Element registered or removed.
+     * @param changeVersion Version after the change.
+     */
+    private void notifyListeners(final RegistererChange.Type type, final T element, final long changeVersion) {
+        for (RegistererListener<T> listener : this.listeners) {
+            try {
+                if (type == RegistererChange.Type.REGISTERED) {
+                    listener.registered(element, changeVersion);
+                } else {
+                    listener.removed(element, changeVersion);
+                }
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * @return The folding used to compare the names.
+     */
+    NameFolding getFolding() {
+        return this.handles.getFolding();
+    }
+
+    private InvalidParameterException alreadyExists(final String names) {
+        return new InvalidParameterException(this.getClass().getTypeParameters()[0].getGenericDeclaration().getSimpleName()
+                + " associated with name " + names + " already exists.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(final int handle) {
+        return (T) this.handles.element(handle);
     }
 
     /**
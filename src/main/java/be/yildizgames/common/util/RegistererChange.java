@@ -0,0 +1,99 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * A change done in a Registerer, an element was registered or removed.
+ * Every change increments the registerer version by one.
+ *
+ * @param <T> Type of the registered elements.
+ * @author Grégory Van den Borre
+ */
+public final class RegistererChange<T extends Registerable> {
+
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+
+        /**
+         * The element was registered.
+         */
+        REGISTERED,
+
+        /**
+         * The element was removed.
+         */
+        REMOVED
+    }
+
+    /**
+     * Kind of change.
+     */
+    private final Type type;
+
+    /**
+     * Element registered or removed.
+     */
+    private final T element;
+
+    /**
+     * Registerer version after the change.
+     */
+    private final long version;
+
+    RegistererChange(final Type type, final T element, final long version) {
+        super();
+        this.type = type;
+        this.element = element;
+        this.version = version;
+    }
+
+    /**
+     * @return The kind of change.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The element registered or removed.
+     */
+    public T getElement() {
+        return this.element;
+    }
+
+    /**
+     * @return The registerer version after the change.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public String toString() {
+        return this.version + ":" + this.type + ":" + this.element.getName();
+    }
+}
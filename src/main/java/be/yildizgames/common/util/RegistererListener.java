@@ -0,0 +1,53 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Listener notified when elements are registered or removed in a Registerer.
+ * Notifications are sent in the order of the changes, while the registerer is locked, implementations must be fast
+ * and must not modify the registerer. Notifications are sent once the registerer is consistent, an exception thrown by
+ * a listener is given to the uncaught exception handler of the thread and does not change the registerer.
+ *
+ * @param <T> Type of the registered elements.
+ * @author Grégory Van den Borre
+ */
+public interface RegistererListener<T extends Registerable> {
+
+    /**
+     * Called when an element has been registered.
+     *
+     * @param element Registered element.
+     * @param version Registerer version after the registration.
+     */
+    void registered(T element, long version);
+
+    /**
+     * Called when an element has been removed.
+     *
+     * @param element Removed element.
+     * @param version Registerer version after the removal.
+     */
+    void removed(T element, long version);
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters updated by a Registerer when its metrics are enabled.
+ * Striped counters are used, so threads updating them concurrently do not contend.
+ *
+ * @author Grégory Van den Borre
+ */
+final class RegistererMetrics {
+
+    /**
+     * Number of lookups that found an element.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of lookups that found no element.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of times the NoResult behavior was called.
+     */
+    private final LongAdder noResults = new LongAdder();
+
+    /**
+     * Number of registered elements.
+     */
+    private final LongAdder registrations = new LongAdder();
+
+    /**
+     * Number of removed elements.
+     */
+    private final LongAdder removals = new LongAdder();
+
+    RegistererMetrics() {
+        super();
+    }
+
+    /**
+     * Count a lookup that found an element.
+     */
+    void hit() {
+        this.hits.increment();
+    }
+
+    /**
+     * Count a lookup that found no element.
+     */
+    void miss() {
+        this.misses.increment();
+    }
+
+    /**
+     * Count a call to the NoResult behavior.
+     */
+    void noResult() {
+        this.noResults.increment();
+    }
+
+    /**
+     * Count a registered element.
+     */
+    void registration() {
+        this.registrations.increment();
+    }
+
+    /**
+     * Count a removed element.
+     */
+    void removal() {
+        this.removals.increment();
+    }
+
+    /**
+     * @return The current counter values.
+     */
+    RegistererStatistics snapshot() {
+        long hit = this.hits.sum();
+        long miss = this.misses.sum();
+        return new RegistererStatistics(hit + miss, hit, miss, this.noResults.sum(), this.registrations.sum(), this.removals.sum());
+    }
+}
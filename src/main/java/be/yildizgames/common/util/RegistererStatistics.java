@@ -0,0 +1,132 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Snapshot of the metrics of a Registerer, values are counted since the metrics were enabled.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class RegistererStatistics {
+
+    /**
+     * Number of lookups, by name or by handle.
+     */
+    private final long lookups;
+
+    /**
+     * Number of lookups returning a registered element.
+     */
+    private final long hits;
+
+    /**
+     * Number of lookups not finding any registered element.
+     */
+    private final long misses;
+
+    /**
+     * Number of calls to the NoResult behavior.
+     */
+    private final long noResults;
+
+    /**
+     * Number of registered elements.
+     */
+    private final long registrations;
+
+    /**
+     * Number of removed elements.
+     */
+    private final long removals;
+
+    RegistererStatistics(final long lookups, final long hits, final long misses, final long noResults,
+                         final long registrations, final long removals) {
+        super();
+        this.lookups = lookups;
+        this.hits = hits;
+        this.misses = misses;
+        this.noResults = noResults;
+        this.registrations = registrations;
+        this.removals = removals;
+    }
+
+    /**
+     * @return The number of lookups, by name or by handle.
+     */
+    public long getLookups() {
+        return this.lookups;
+    }
+
+    /**
+     * @return The number of lookups returning a registered element.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return The number of lookups not finding any registered element.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return The number of calls to the NoResult behavior.
+     */
+    public long getNoResults() {
+        return this.noResults;
+    }
+
+    /**
+     * @return The number of registered elements.
+     */
+    public long getRegistrations() {
+        return this.registrations;
+    }
+
+    /**
+     * @return The number of removed elements.
+     */
+    public long getRemovals() {
+        return this.removals;
+    }
+
+    /**
+     * @return The ratio between hits and lookups, 0 if there was no lookup.
+     */
+    public float getHitRatio() {
+        if (this.lookups == 0) {
+            return 0;
+        }
+        return (float) this.hits / this.lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "lookups:" + this.lookups + ", hits:" + this.hits + ", misses:" + this.misses + ", noResults:" + this.noResults
+                + ", registrations:" + this.registrations + ", removals:" + this.removals;
+    }
+}
@@ -24,17 +24,87 @@
 
 package be.yildizgames.common.util;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
 /**
  * Resource meant to be loaded, contains the loaded state and the resource name.
+ * A resource can be loaded synchronously, or in background on a provided executor, listeners are notified when the
+ * loading completes.
+ * Loading is thread safe: the loading implementation is called only once, even if several threads load the resource
+ * at the same time, the other threads wait for its result. Once loaded, checking the state is a single volatile read.
+ * A loaded resource can be unloaded to release its memory, and loaded again later.
+ * A loaded resource can also be reloaded, i.e. when its file changed, it stays loaded while reloading, this is only
+ * supported by resources opting in with isReloadable, as their reloading must replace the content at once.
+ * Users can acquire handles on a resource, a resource referenced by a handle cannot be unloaded, listeners are notified
+ * when the last handle is closed, so the resource can be unloaded.
+ * Loading times can be recorded with the ResourceLoadMonitor and the flight recorder.
  *
  * @author Grégory Van Den Borre
  */
 public abstract class Resource extends BaseRegisterable {
 
     /**
-     * Loaded state.
+     * Loading state of a resource.
+     */
+    public enum State {
+
+        /**
+         * The resource has not been loaded yet.
+         */
+        NOT_LOADED,
+
+        /**
+         * The resource is being loaded.
+         */
+        LOADING,
+
+        /**
+         * The resource is loaded.
+         */
+        LOADED,
+
+        /**
+         * The last loading failed, the resource can be loaded again.
+         */
+        FAILED
+    }
+
+    /**
+     * Updater for the number of references.
+     */
+    private static final AtomicIntegerFieldUpdater<Resource> REFERENCES = AtomicIntegerFieldUpdater.newUpdater(Resource.class, "references");
+
+    /**
+     * Listeners notified when the loading completes.
+     */
+    private final List<ResourceListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Lock used to decide which thread loads the resource.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Loading state.
      */
-    private boolean loaded;
+    private volatile State state = State.NOT_LOADED;
+
+    /**
+     * Loading in progress, joined by the other threads loading the resource, null if no loading is in progress.
+     */
+    private CompletableFuture<Resource> loading;
+
+    /**
+     * Number of open handles on this resource.
+     */
+    private volatile int references;
 
     /**
      * Full constructor.
@@ -47,12 +117,224 @@ public abstract class Resource extends BaseRegisterable {
 
     /**
      * Load the resource, can be only be done one time.
+     * If another thread is loading the resource, wait for it to complete, and throw its exception if it failed.
+     * If the loading fails, the exception is thrown, listeners are notified, and the resource can be loaded again.
      */
     public final void load() {
-        if (!this.loaded) {
-            this.loadImpl();
-            this.loaded = true;
+        if (this.state == State.LOADED) {
+            return;
+        }
+        CompletableFuture<Resource> attempt;
+        boolean owner = false;
+        synchronized (this.lock) {
+            if (this.state == State.LOADED) {
+                return;
+            }
+            attempt = this.loading;
+            if (attempt == null) {
+                attempt = this.startLoading();
+                owner = true;
+            }
+        }
+        if (owner) {
+            this.runLoading(attempt);
+            return;
+        }
+        try {
+            attempt.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Load the resource in background, can be only be done one time.
+     * If the resource is already being loaded, the returned future completes when that loading completes.
+     *
+     * @param executor Executor running the loading.
+     * @return A future completed with this resource once loaded, or completed exceptionally if the loading failed.
+     */
+    public final CompletableFuture<Resource> loadAsync(final Executor executor) {
+        if (this.state == State.LOADED) {
+            return CompletableFuture.completedFuture(this);
+        }
+        CompletableFuture<Resource> attempt;
+        synchronized (this.lock) {
+            if (this.state == State.LOADED) {
+                return CompletableFuture.completedFuture(this);
+            }
+            if (this.loading != null) {
+                return this.loading.copy();
+            }
+            attempt = this.startLoading();
         }
+        try {
+            executor.execute(() -> {
+                try {
+                    this.runLoading(attempt);
+                } catch (RuntimeException e) {
+                    //Already reported through the future and the listeners.
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.completeLoading(attempt, State.FAILED, e);
+        }
+        return attempt.copy();
+    }
+
+    /**
+     * Unload the resource to release its memory, the resource can be loaded again later.
+     * Nothing is done if the resource is not loaded, is being loaded, or is referenced by a handle.
+     *
+     * @return true if the resource has been unloaded.
+     */
+    public final boolean unload() {
+        synchronized (this.lock) {
+            if (this.state != State.LOADED || this.references > 0) {
+                return false;
+            }
+            this.state = State.NOT_LOADED;
+            //A handle acquired concurrently either saw the resource not loaded and waits for the lock to load it,
+            //or is visible here.
+            if (this.references > 0) {
+                this.state = State.LOADED;
+                return false;
+            }
+            this.unloadImpl();
+        }
+        this.notifyListeners(l -> l.unloaded(this));
+        return true;
+    }
+
+    /**
+     * Acquire a handle on this resource, the resource is loaded if needed, and cannot be unloaded until the handle is
+     * closed.
+     *
+     * @return The acquired handle.
+     * @throws RuntimeException If the resource failed to load, no handle is acquired.
+     */
+    public final ResourceHandle<Resource> acquire() {
+        return ResourceHandle.acquire(this);
+    }
+
+    /**
+     * @return The number of open handles on this resource.
+     */
+    public final int getReferenceCount() {
+        return this.references;
+    }
+
+    /**
+     * Add a reference and load the resource if needed.
+     *
+     * @throws RuntimeException If the resource failed to load, the reference is not added.
+     */
+    final void addReference() {
+        REFERENCES.incrementAndGet(this);
+        try {
+            this.load();
+        } catch (RuntimeException | Error e) {
+            this.removeReference();
+            throw e;
+        }
+    }
+
+    /**
+     * Remove a reference, the listeners are notified if it was the last one.
+     */
+    final void removeReference() {
+        if (REFERENCES.decrementAndGet(this) == 0) {
+            this.notifyListeners(l -> l.unreferenced(this));
+        }
+    }
+
+    /**
+     * Reload the resource, if not loaded, it is simply loaded.
+     * The resource stays loaded during the reloading, and if it fails, the previous content is kept, the exception is
+     * thrown and listeners are notified. Listeners are notified once the lock is released, so they can use other
+     * resources without risking a deadlock with a concurrent reloading.
+     *
+     * @throws UnsupportedOperationException If the resource is not reloadable.
+     */
+    public final void reload() {
+        if (!this.isReloadable()) {
+            throw new UnsupportedOperationException(this.getName() + " cannot be reloaded");
+        }
+        boolean loaded;
+        RuntimeException failure = null;
+        synchronized (this.lock) {
+            loaded = this.state == State.LOADED;
+            if (loaded) {
+                try {
+                    this.reloadImpl();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (!loaded) {
+            this.load();
+            return;
+        }
+        if (failure != null) {
+            RuntimeException cause = failure;
+            this.notifyListeners(l -> l.loadFailed(this, cause));
+            throw failure;
+        }
+        this.notifyListeners(l -> l.reloaded(this));
+    }
+
+    /**
+     * Tell if the resource supports reloading, resources opt in by returning true and implementing reloadImpl.
+     *
+     * @return true if the resource can be reloaded, false by default.
+     */
+    public boolean isReloadable() {
+        return false;
+    }
+
+    /**
+     * Provide the memory used by this resource once loaded, used to enforce memory budgets.
+     *
+     * @return The memory used by the loaded resource, in bytes, 0 if unknown.
+     */
+    public long getSize() {
+        return 0;
+    }
+
+    /**
+     * @return The current loading state.
+     */
+    public final State getState() {
+        return this.state;
+    }
+
+    /**
+     * @return true if the resource is loaded.
+     */
+    public final boolean isLoaded() {
+        return this.state == State.LOADED;
+    }
+
+    /**
+     * Add a listener to be notified when the loading completes.
+     *
+     * @param listener Listener to add.
+     */
+    public final void addListener(final ResourceListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener Listener to remove.
+     */
+    public final void removeListener(final ResourceListener listener) {
+        this.listeners.remove(listener);
     }
 
     /**
@@ -60,6 +342,114 @@ public abstract class Resource extends BaseRegisterable {
      */
     protected abstract void loadImpl();
 
+    /**
+     * Call the unloading implementation, release the memory used by the loaded resource.
+     * Does nothing by default.
+     */
+    protected void unloadImpl() {
+        //Does nothing by default.
+    }
+
+    /**
+     * Call the reloading implementation, called only when loaded and reloadable.
+     * Implementations must build the new content first and then replace the previous one at once, so the content is
+     * never seen partially loaded, and keep the previous content if the reloading fails.
+     * Not supported by default.
+     */
+    protected void reloadImpl() {
+        throw new UnsupportedOperationException(this.getName() + " cannot be reloaded");
+    }
+
+    /**
+     * Mark the resource as being loaded, must be called while holding the lock.
+     *
+     * @return The future completed when the loading is done.
+     */
+    private CompletableFuture<Resource> startLoading() {
+        CompletableFuture<Resource> attempt = new CompletableFuture<>();
+        this.loading = attempt;
+        this.state = State.LOADING;
+        return attempt;
+    }
+
+    /**
+     * Call the loading implementation and complete the loading.
+     *
+     * @param attempt Future to complete.
+     */
+    private void runLoading(final CompletableFuture<Resource> attempt) {
+        ResourceLoadEvent event = ResourceLoadMonitor.FLIGHT_RECORDER ? ResourceLoadEvent.start() : null;
+        boolean monitored = ResourceLoadMonitor.isEnabled();
+        long start = monitored ? System.nanoTime() : 0;
+        try {
+            this.loadImpl();
+        } catch (RuntimeException | Error e) {
+            this.recordLoading(event, monitored, start, false);
+            this.completeLoading(attempt, State.FAILED, e);
+            throw e;
+        }
+        this.recordLoading(event, monitored, start, true);
+        this.completeLoading(attempt, State.LOADED, null);
+    }
+
+    /**
+     * Report a loading to the flight recorder and the monitor, if enabled.
+     *
+     * @param event     Flight recorder event started before the loading, null if the flight recorder is not available.
+     * @param monitored true if the monitor was enabled when the loading started.
+     * @param start     Time the loading started, in nanoseconds.
+     * @param success   true if the loading succeeded.
+     */
+    private void recordLoading(final ResourceLoadEvent event, final boolean monitored, final long start, final boolean success) {
+        if (monitored) {
+            ResourceLoadMonitor.record(this, System.nanoTime() - start, success);
+        }
+        if (event != null) {
+            event.report(this, success);
+        }
+    }
+
+    /**
+     * Update the state, notify the threads waiting for the loading, and then the listeners.
+     *
+     * @param attempt Future to complete.
+     * @param result  New state.
+     * @param cause   Exception thrown while loading, null if the loading succeeded.
+     */
+    private void completeLoading(final CompletableFuture<Resource> attempt, final State result, final Throwable cause) {
+        synchronized (this.lock) {
+            this.state = result;
+            this.loading = null;
+        }
+        if (cause == null) {
+            attempt.complete(this);
+            this.notifyListeners(l -> l.loaded(this));
+        } else {
+            attempt.completeExceptionally(cause);
+            if (cause instanceof RuntimeException) {
+                this.notifyListeners(l -> l.loadFailed(this, (RuntimeException) cause));
+            }
+        }
+    }
+
+    /**
+     * Notify all listeners, an exception thrown by a listener does not prevent the other ones to be notified, and
+     * does not change the outcome of the notified operation, it is given to the current thread uncaught exception
+     * handler.
+     *
+     * @param notification Notification to send to every listener.
+     */
+    private void notifyListeners(final Consumer<ResourceListener> notification) {
+        for (ResourceListener listener : this.listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
     @Override
     public int hashCode() {
         return super.hashCode();
@@ -67,7 +457,7 @@ public abstract class Resource extends BaseRegisterable {
 
     @Override
     public boolean equals(Object obj) {
-        return super.equals(obj) && this.loaded == ((Resource) obj).loaded;
+        return super.equals(obj) && this.isLoaded() == ((Resource) obj).isLoaded();
     }
 
     @Override
@@ -0,0 +1,334 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Dependencies between resources, used to load them in parallel while loading every resource after its dependencies.
+ * Cycles are refused when the dependencies are declared, so the graph can always be loaded.
+ * A resource is loaded as soon as all its dependencies are loaded, independent resources are loaded at the same time.
+ * If a resource fails to load, the resources depending on it are not loaded.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceGraph {
+
+    /**
+     * Resources in the graph, by name, in insertion order.
+     */
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    private ResourceGraph() {
+        super();
+    }
+
+    /**
+     * Create a new empty graph.
+     *
+     * @return The created graph.
+     */
+    public static ResourceGraph newGraph() {
+        return new ResourceGraph();
+    }
+
+    /**
+     * Add a resource without dependency, nothing is done if it is already in the graph.
+     *
+     * @param resource Resource to add.
+     * @throws InvalidParameterException If another resource with the same name is already in the graph.
+     */
+    public synchronized void add(final Resource resource) {
+        this.node(resource);
+    }
+
+    /**
+     * Declare a dependency, the resources are added to the graph if needed.
+     *
+     * @param resource   Resource depending on the other one.
+     * @param dependency Resource to load before.
+     * @throws InvalidParameterException If the dependency creates a cycle, or if another resource with the same name as
+     *                                   one of them is already in the graph.
+     */
+    public synchronized void addDependency(final Resource resource, final Resource dependency) {
+        Node node = this.node(resource);
+        Node dependencyNode = this.node(dependency);
+        if (dependencyNode.dependsOn(node)) {
+            throw new InvalidParameterException("Dependency from " + resource.getName() + " to "
+                    + dependency.getName() + " creates a cycle");
+        }
+        if (!node.dependencies.contains(dependencyNode)) {
+            node.dependencies.add(dependencyNode);
+        }
+    }
+
+    /**
+     * Provide the direct dependencies of a resource.
+     *
+     * @param resource Resource to check.
+     * @return The resources to load before it, empty if the resource is not in the graph.
+     */
+    public synchronized List<Resource> getDependencies(final Resource resource) {
+        Node node = this.nodes.get(resource.getName());
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<Resource> result = new ArrayList<>(node.dependencies.size());
+        for (Node dependency : node.dependencies) {
+            result.add(dependency.resource);
+        }
+        return result;
+    }
+
+    /**
+     * Provide all the resources of the graph, every resource is after its dependencies.
+     *
+     * @return The resources in a valid loading order.
+     */
+    public synchronized List<Resource> getLoadingOrder() {
+        List<Resource> result = new ArrayList<>(this.nodes.size());
+        for (Node node : this.sort(this.nodes.values())) {
+            result.add(node.resource);
+        }
+        return result;
+    }
+
+    /**
+     * Load all the resources of the graph in parallel on the common fork join pool.
+     *
+     * @return A future completed once all resources are loaded, or completed exceptionally if one of them failed.
+     */
+    public CompletableFuture<Void> loadAll() {
+        return this.loadAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Load all the resources of the graph in parallel.
+     *
+     * @param executor Executor running the loadings.
+     * @return A future completed once all resources are loaded, or completed exceptionally if one of them failed.
+     */
+    public CompletableFuture<Void> loadAll(final Executor executor) {
+        List<Step> plan;
+        synchronized (this) {
+            plan = this.plan(this.nodes.values());
+        }
+        return this.load(plan, executor);
+    }
+
+    /**
+     * Load a resource after all its direct and indirect dependencies, in parallel.
+     *
+     * @param resource Resource to load.
+     * @param executor Executor running the loadings.
+     * @return A future completed once the resource is loaded, or completed exceptionally if it or one of its
+     * dependencies failed.
+     * @throws InvalidParameterException If the resource is not in the graph.
+     */
+    public CompletableFuture<Void> load(final Resource resource, final Executor executor) {
+        List<Step> plan;
+        synchronized (this) {
+            Node node = this.nodes.get(resource.getName());
+            if (node == null || node.resource != resource) {
+                throw new InvalidParameterException(resource.getName() + " is not in the graph");
+            }
+            plan = this.plan(Collections.singletonList(node));
+        }
+        return this.load(plan, executor);
+    }
+
+    /**
+     * Start the loading of planned steps, each one once its dependencies are loaded.
+     *
+     * @param plan     Steps to load, every step is after its dependencies.
+     * @param executor Executor running the loadings.
+     * @return A future completed once all steps are loaded.
+     */
+    private CompletableFuture<Void> load(final List<Step> plan, final Executor executor) {
+        CompletableFuture<?>[] loadings = new CompletableFuture<?>[plan.size()];
+        for (int i = 0; i < loadings.length; i++) {
+            Step step = plan.get(i);
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[step.dependencies.length];
+            for (int j = 0; j < dependencies.length; j++) {
+                dependencies[j] = loadings[step.dependencies[j]];
+            }
+            loadings[i] = CompletableFuture.allOf(dependencies).thenCompose(v -> step.resource.loadAsync(executor));
+        }
+        return CompletableFuture.allOf(loadings);
+    }
+
+    /**
+     * Sort nodes and all their dependencies, and copy their dependencies, so the loading is not affected by the
+     * dependencies declared meanwhile, must be called while holding the lock.
+     *
+     * @param roots Nodes to load.
+     * @return The loading steps, every step is after its dependencies.
+     */
+    private List<Step> plan(final Iterable<Node> roots) {
+        List<Node> order = this.sort(roots);
+        Map<Node, Integer> positions = new HashMap<>(order.size() * 4 / 3 + 1);
+        List<Step> plan = new ArrayList<>(order.size());
+        for (Node node : order) {
+            int[] dependencies = new int[node.dependencies.size()];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = positions.get(node.dependencies.get(i));
+            }
+            positions.put(node, plan.size());
+            plan.add(new Step(node.resource, dependencies));
+        }
+        return plan;
+    }
+
+    /**
+     * Sort nodes and all their dependencies so every node is after its dependencies, must be called while holding the
+     * lock.
+     *
+     * @param roots Nodes to sort.
+     * @return The sorted nodes, with their dependencies.
+     */
+    private List<Node> sort(final Iterable<Node> roots) {
+        List<Node> result = new ArrayList<>();
+        Set<Node> visited = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Integer> positions = new ArrayDeque<>();
+        for (Node root : roots) {
+            if (!visited.add(root)) {
+                continue;
+            }
+            stack.push(root);
+            positions.push(0);
+            while (!stack.isEmpty()) {
+                Node current = stack.peek();
+                int position = positions.pop();
+                if (position < current.dependencies.size()) {
+                    positions.push(position + 1);
+                    Node next = current.dependencies.get(position);
+                    if (visited.add(next)) {
+                        stack.push(next);
+                        positions.push(0);
+                    }
+                } else {
+                    stack.pop();
+                    result.add(current);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the node of a resource, created if needed, must be called while holding the lock.
+     *
+     * @param resource Resource to retrieve.
+     * @return The node of the resource.
+     * @throws InvalidParameterException If another resource with the same name is already in the graph.
+     */
+    private Node node(final Resource resource) {
+        Node node = this.nodes.computeIfAbsent(resource.getName(), n -> new Node(resource));
+        if (node.resource != resource) {
+            throw new InvalidParameterException(resource.getName() + " is already in the graph");
+        }
+        return node;
+    }
+
+    /**
+     * A resource to load, and the positions of its direct dependencies in the loading plan.
+     */
+    private static final class Step {
+
+        /**
+         * Resource to load.
+         */
+        private final Resource resource;
+
+        /**
+         * Positions of the steps to load before this one.
+         */
+        private final int[] dependencies;
+
+        private Step(final Resource resource, final int[] dependencies) {
+            super();
+            this.resource = resource;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * A resource and its direct dependencies.
+     */
+    private static final class Node {
+
+        /**
+         * Resource of this node.
+         */
+        private final Resource resource;
+
+        /**
+         * Nodes to load before this one.
+         */
+        private final List<Node> dependencies = new ArrayList<>();
+
+        private Node(final Resource resource) {
+            super();
+            this.resource = resource;
+        }
+
+        /**
+         * Check if this node depends directly or indirectly on another one.
+         *
+         * @param other Node to check.
+         * @return true if this node is the other one, or depends on it.
+         */
+        private boolean dependsOn(final Node other) {
+            Set<Node> visited = new HashSet<>();
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.push(this);
+            while (!toVisit.isEmpty()) {
+                Node current = toVisit.pop();
+                if (current == other) {
+                    return true;
+                }
+                if (visited.add(current)) {
+                    current.dependencies.forEach(toVisit::push);
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handle on a loaded resource, the resource cannot be unloaded while at least one handle on it is open.
+ * Handles are meant to be used in try with resources blocks, closing a handle more than once has no effect.
+ * This class is thread safe.
+ *
+ * @param <T> Type of the resource.
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceHandle<T extends Resource> implements AutoCloseable {
+
+    /**
+     * Referenced resource.
+     */
+    private final T resource;
+
+    /**
+     * true if the handle is closed.
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private ResourceHandle(final T resource) {
+        super();
+        this.resource = resource;
+    }
+
+    /**
+     * Acquire a handle on a resource, the resource is loaded if needed, and cannot be unloaded until the handle is
+     * closed.
+     *
+     * @param <T>      Type of the resource.
+     * @param resource Resource to acquire.
+     * @return The acquired handle.
+     * @throws RuntimeException If the resource failed to load, no handle is acquired.
+     */
+    public static <T extends Resource> ResourceHandle<T> acquire(final T resource) {
+        resource.addReference();
+        return new ResourceHandle<>(resource);
+    }
+
+    /**
+     * Provide the referenced resource.
+     *
+     * @return The resource, loaded.
+     * @throws IllegalStateException If the handle is closed.
+     */
+    public T get() {
+        if (this.closed.get()) {
+            throw new IllegalStateException("Handle on " + this.resource.getName() + " is closed");
+        }
+        return this.resource;
+    }
+
+    /**
+     * @return true if the handle is closed.
+     */
+    public boolean isClosed() {
+        return this.closed.get();
+    }
+
+    /**
+     * Release the resource, the resource can be unloaded once all its handles are closed.
+     */
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.resource.removeReference();
+        }
+    }
+}
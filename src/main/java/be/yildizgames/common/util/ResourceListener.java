@@ -0,0 +1,83 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Listener notified of the loading state changes of a Resource, load, failure, unload and reload, and when it is no
+ * longer referenced.
+ * Methods have an empty default implementation, so only the needed ones have to be implemented.
+ *
+ * @author Grégory Van Den Borre
+ */
+public interface ResourceListener {
+
+    /**
+     * Called when a resource has been successfully loaded, on the thread that loaded it.
+     *
+     * @param resource Loaded resource.
+     */
+    default void loaded(final Resource resource) {
+        //Does nothing by default.
+    }
+
+    /**
+     * Called when a resource failed to load, on the thread that tried to load it.
+     *
+     * @param resource Resource that failed to load.
+     * @param cause    Exception thrown by the loading implementation.
+     */
+    default void loadFailed(final Resource resource, final RuntimeException cause) {
+        //Does nothing by default.
+    }
+
+    /**
+     * Called when a resource has been unloaded, on the thread that unloaded it.
+     *
+     * @param resource Unloaded resource.
+     */
+    default void unloaded(final Resource resource) {
+        //Does nothing by default.
+    }
+
+    /**
+     * Called when a loaded resource has been successfully reloaded, on the thread that reloaded it.
+     * A failed reloading is notified with loadFailed, the resource staying loaded.
+     *
+     * @param resource Reloaded resource.
+     */
+    default void reloaded(final Resource resource) {
+        //Does nothing by default.
+    }
+
+    /**
+     * Called when the last handle on a resource has been closed, on the thread that closed it.
+     * The resource can then be unloaded, unless a new handle is acquired meanwhile.
+     *
+     * @param resource Resource no longer referenced.
+     */
+    default void unreferenced(final Resource resource) {
+        //Does nothing by default.
+    }
+}
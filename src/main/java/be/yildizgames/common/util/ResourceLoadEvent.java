@@ -0,0 +1,103 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted for every resource loading, with its duration and thread.
+ * Disabled by default, when disabled in the recording settings, the cost is close to zero.
+ * The jdk.jfr module is optional, this class must only be used if ResourceLoadMonitor.FLIGHT_RECORDER is true.
+ *
+ * @author Grégory Van Den Borre
+ */
+@Name(ResourceLoadEvent.NAME)
+@Label("Resource Load")
+@Category({"Yildiz", "Resource"})
+@Description("Loading of a resource")
+final class ResourceLoadEvent extends jdk.jfr.Event {
+
+    /**
+     * Event name, to enable it in a recording.
+     */
+    static final String NAME = "be.yildizgames.common.util.ResourceLoad";
+
+    /**
+     * Name of the loaded resource.
+     */
+    @Label("Resource Name")
+    String resourceName;
+
+    /**
+     * Class of the loaded resource.
+     */
+    @Label("Resource Type")
+    String resourceType;
+
+    /**
+     * Size reported by the resource once loaded.
+     */
+    @Label("Size")
+    @DataAmount
+    long size;
+
+    /**
+     * true if the loading succeeded.
+     */
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Create an event and start its timing.
+     *
+     * @return The started event.
+     */
+    static ResourceLoadEvent start() {
+        ResourceLoadEvent event = new ResourceLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if enabled in the recording.
+     *
+     * @param resource Loaded resource.
+     * @param result   true if the loading succeeded.
+     */
+    void report(final Resource resource, final boolean result) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.resourceName = resource.getName();
+            this.resourceType = resource.getClass().getName();
+            this.size = result ? resource.getSize() : 0;
+            this.success = result;
+            this.commit();
+        }
+    }
+}
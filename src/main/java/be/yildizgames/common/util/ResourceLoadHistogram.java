@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of the loading times of a resource type, times are counted in buckets of powers of 2 nanoseconds, so
+ * percentiles are approximated by the upper bound of their bucket.
+ * This class is thread safe, values are updated while read.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoadHistogram {
+
+    /**
+     * Number of buckets, bucket i counts the times in [2^i, 2^(i+1)[ nanoseconds, bucket 0 also counts 0.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * Resource type name.
+     */
+    private final String type;
+
+    /**
+     * Number of loadings in each bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Number of loadings.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Number of failed loadings.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Sum of the loading times, in nanoseconds.
+     */
+    private final LongAdder totalTime = new LongAdder();
+
+    /**
+     * Sum of the sizes of the loaded resources, in bytes.
+     */
+    private final LongAdder totalBytes = new LongAdder();
+
+    /**
+     * Longest loading time, in nanoseconds.
+     */
+    private final AtomicLong maxTime = new AtomicLong();
+
+    ResourceLoadHistogram(final String type) {
+        super();
+        this.type = type;
+    }
+
+    /**
+     * Record a loading.
+     *
+     * @param time    Loading time, in nanoseconds.
+     * @param bytes   Size of the loaded resource, in bytes.
+     * @param success true if the loading succeeded.
+     */
+    void record(final long time, final long bytes, final boolean success) {
+        long positive = Math.max(time, 0);
+        this.buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(positive | 1));
+        this.count.increment();
+        this.totalTime.add(positive);
+        this.maxTime.accumulateAndGet(positive, Math::max);
+        if (success) {
+            this.totalBytes.add(bytes);
+        } else {
+            this.failures.increment();
+        }
+    }
+
+    /**
+     * @return The resource type name.
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The number of loadings, successful or not.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return The number of failed loadings.
+     */
+    public long getFailureCount() {
+        return this.failures.sum();
+    }
+
+    /**
+     * @return The sum of the sizes of the loaded resources, in bytes.
+     */
+    public long getTotalBytes() {
+        return this.totalBytes.sum();
+    }
+
+    /**
+     * @return The mean loading time, in nanoseconds, 0 if there was no loading.
+     */
+    public long getMeanTime() {
+        long loadings = this.count.sum();
+        return loadings == 0 ? 0 : this.totalTime.sum() / loadings;
+    }
+
+    /**
+     * @return The longest loading time, in nanoseconds.
+     */
+    public long getMaxTime() {
+        return this.maxTime.get();
+    }
+
+    /**
+     * Provide an approximated percentile of the loading times.
+     *
+     * @param percentile Percentile to compute, between 0 and 100.
+     * @return The upper bound of the bucket containing the percentile, in nanoseconds, 0 if there was no loading.
+     */
+    public long getPercentile(final double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " count:" + this.getCount() + ", failures:" + this.getFailureCount() + ", mean:" + this.getMeanTime()
+                + "ns, p99:" + this.getPercentile(99) + "ns, max:" + this.getMaxTime() + "ns, bytes:" + this.getTotalBytes();
+    }
+}
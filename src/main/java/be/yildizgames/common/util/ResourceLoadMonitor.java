@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregate the loading times of all resources, by resource type.
+ * Disabled by default, when disabled, loading a resource only checks a flag. Each loading is also emitted as a
+ * flight recorder event named be.yildizgames.common.util.ResourceLoad, when enabled in the recording, and if the
+ * optional jdk.jfr module is present.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoadMonitor {
+
+    /**
+     * true if the jdk.jfr module is present, so the flight recorder events can be used, the module is optional and not
+     * resolved on the module path unless required by another module or added explicitly.
+     */
+    static final boolean FLIGHT_RECORDER = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    /**
+     * Histograms, by resource class.
+     */
+    private static final Map<Class<?>, ResourceLoadHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /**
+     * true if the loadings are recorded.
+     */
+    private static volatile boolean enabled;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ResourceLoadMonitor() {
+        super();
+    }
+
+    /**
+     * Start recording the loadings.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stop recording the loadings, recorded values are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return true if the loadings are recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Remove all recorded values.
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /**
+     * Provide the histogram of a resource type.
+     *
+     * @param type Resource class.
+     * @return The histogram, empty if no loading was recorded for this type.
+     */
+    public static Optional<ResourceLoadHistogram> getHistogram(final Class<? extends Resource> type) {
+        return Optional.ofNullable(HISTOGRAMS.get(type));
+    }
+
+    /**
+     * @return The histograms of all resource types, by class name.
+     */
+    public static Map<String, ResourceLoadHistogram> getHistograms() {
+        Map<String, ResourceLoadHistogram> result = new TreeMap<>();
+        HISTOGRAMS.values().forEach(h -> result.put(h.getType(), h));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Record a loading.
+     *
+     * @param resource Loaded resource.
+     * @param time     Loading time, in nanoseconds.
+     * @param success  true if the loading succeeded.
+     */
+    static void record(final Resource resource, final long time, final boolean success) {
+        HISTOGRAMS.computeIfAbsent(resource.getClass(), c -> new ResourceLoadHistogram(c.getName()))
+                .record(time, success ? resource.getSize() : 0, success);
+    }
+}
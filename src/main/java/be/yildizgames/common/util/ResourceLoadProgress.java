@@ -0,0 +1,162 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+/**
+ * Snapshot of the progress of a ResourceLoadQueue, i.e. to display a loading screen.
+ * Sizes are expected sizes for queued and running loadings, and actual sizes for done loadings when the resources
+ * report them.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoadProgress {
+
+    /**
+     * Number of loadings waiting to start.
+     */
+    private final int queued;
+
+    /**
+     * Number of loadings running.
+     */
+    private final int running;
+
+    /**
+     * Number of successful loadings.
+     */
+    private final long done;
+
+    /**
+     * Number of failed loadings.
+     */
+    private final long failed;
+
+    /**
+     * Number of cancelled loadings.
+     */
+    private final long cancelled;
+
+    /**
+     * Size of the loadings waiting to start, in bytes.
+     */
+    private final long queuedBytes;
+
+    /**
+     * Size of the loadings running, in bytes.
+     */
+    private final long runningBytes;
+
+    /**
+     * Size of the successful loadings, in bytes.
+     */
+    private final long doneBytes;
+
+    ResourceLoadProgress(final int queued, final int running, final long done, final long failed, final long cancelled,
+                         final long queuedBytes, final long runningBytes, final long doneBytes) {
+        super();
+        this.queued = queued;
+        this.running = running;
+        this.done = done;
+        this.failed = failed;
+        this.cancelled = cancelled;
+        this.queuedBytes = queuedBytes;
+        this.runningBytes = runningBytes;
+        this.doneBytes = doneBytes;
+    }
+
+    /**
+     * @return The number of loadings waiting to start.
+     */
+    public int getQueued() {
+        return this.queued;
+    }
+
+    /**
+     * @return The number of loadings running.
+     */
+    public int getRunning() {
+        return this.running;
+    }
+
+    /**
+     * @return The number of successful loadings.
+     */
+    public long getDone() {
+        return this.done;
+    }
+
+    /**
+     * @return The number of failed loadings.
+     */
+    public long getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * @return The number of cancelled loadings.
+     */
+    public long getCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * @return The size of the loadings waiting to start, in bytes.
+     */
+    public long getQueuedBytes() {
+        return this.queuedBytes;
+    }
+
+    /**
+     * @return The size of the loadings running, in bytes.
+     */
+    public long getRunningBytes() {
+        return this.runningBytes;
+    }
+
+    /**
+     * @return The size of the successful loadings, in bytes.
+     */
+    public long getDoneBytes() {
+        return this.doneBytes;
+    }
+
+    /**
+     * @return The ratio of done bytes on all bytes not cancelled, 1 if there is nothing to load.
+     */
+    public float getByteRatio() {
+        long total = this.queuedBytes + this.runningBytes + this.doneBytes;
+        if (total == 0) {
+            return 1;
+        }
+        return (float) this.doneBytes / total;
+    }
+
+    @Override
+    public String toString() {
+        return "queued:" + this.queued + ", running:" + this.running + ", done:" + this.done + ", failed:" + this.failed
+                + ", cancelled:" + this.cancelled + ", queuedBytes:" + this.queuedBytes + ", runningBytes:" + this.runningBytes
+                + ", doneBytes:" + this.doneBytes;
+    }
+}
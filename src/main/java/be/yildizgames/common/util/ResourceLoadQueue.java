@@ -0,0 +1,283 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Queue of resource loadings, run by priority with a bounded number of loadings at the same time.
+ * Priorities can be changed and loadings cancelled until they start, so loadings no longer needed do not delay the
+ * others. The progress of the queue can be retrieved, i.e. to display a loading screen.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoadQueue {
+
+    /**
+     * Order of the requests, highest priority first, and then in submission order.
+     */
+    private static final Comparator<ResourceLoadRequest> ORDER = Comparator
+            .comparingInt(ResourceLoadRequest::getPriority)
+            .reversed()
+            .thenComparingLong(ResourceLoadRequest::getSequence);
+
+    /**
+     * Requests waiting to start.
+     */
+    private final NavigableSet<ResourceLoadRequest> queued = new TreeSet<>(ORDER);
+
+    /**
+     * Executor running the loadings.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of loadings running at the same time.
+     */
+    private final int maxRunning;
+
+    /**
+     * Number of submitted requests.
+     */
+    private long sequence;
+
+    /**
+     * Number of loadings running.
+     */
+    private int running;
+
+    /**
+     * Number of successful loadings.
+     */
+    private long done;
+
+    /**
+     * Number of failed loadings.
+     */
+    private long failed;
+
+    /**
+     * Number of cancelled loadings.
+     */
+    private long cancelled;
+
+    /**
+     * Expected size of the queued loadings, in bytes.
+     */
+    private long queuedBytes;
+
+    /**
+     * Expected size of the running loadings, in bytes.
+     */
+    private long runningBytes;
+
+    /**
+     * Size of the successful loadings, in bytes.
+     */
+    private long doneBytes;
+
+    private ResourceLoadQueue(final Executor executor, final int maxRunning) {
+        super();
+        Checker.exceptionNotGreaterThanZero(maxRunning);
+        this.executor = executor;
+        this.maxRunning = maxRunning;
+    }
+
+    /**
+     * Create a new queue.
+     *
+     * @param executor   Executor running the loadings.
+     * @param maxRunning Maximum number of loadings running at the same time.
+     * @return The created queue.
+     */
+    public static ResourceLoadQueue newQueue(final Executor executor, final int maxRunning) {
+        return new ResourceLoadQueue(executor, maxRunning);
+    }
+
+    /**
+     * Submit a resource to load, with an unknown expected size.
+     *
+     * @param resource Resource to load.
+     * @param priority Loading priority, higher first.
+     * @return The request, to follow, reprioritize or cancel the loading.
+     */
+    public ResourceLoadRequest submit(final Resource resource, final int priority) {
+        return this.submit(resource, priority, 0);
+    }
+
+    /**
+     * Submit a resource to load.
+     *
+     * @param resource     Resource to load.
+     * @param priority     Loading priority, higher first.
+     * @param expectedSize Expected size of the resource, in bytes, used to report the progress.
+     * @return The request, to follow, reprioritize or cancel the loading.
+     */
+    public ResourceLoadRequest submit(final Resource resource, final int priority, final long expectedSize) {
+        Checker.exceptionNotPositive(expectedSize);
+        ResourceLoadRequest request;
+        List<ResourceLoadRequest> toRun;
+        synchronized (this) {
+            request = new ResourceLoadRequest(this, resource, priority, expectedSize, this.sequence++);
+            this.queued.add(request);
+            this.queuedBytes += expectedSize;
+            toRun = this.selectToRun();
+        }
+        request.getFuture().whenComplete((r, e) -> {
+            if (request.isCancelled()) {
+                this.cancel(request);
+            }
+        });
+        this.runAll(toRun);
+        return request;
+    }
+
+    /**
+     * @return A snapshot of the current progress.
+     */
+    public synchronized ResourceLoadProgress getProgress() {
+        return new ResourceLoadProgress(this.queued.size(), this.running, this.done, this.failed, this.cancelled,
+                this.queuedBytes, this.runningBytes, this.doneBytes);
+    }
+
+    /**
+     * Change the priority of a request, moving it in the queue if it did not start yet.
+     *
+     * @param request  Request to update.
+     * @param priority New priority.
+     */
+    synchronized void changePriority(final ResourceLoadRequest request, final int priority) {
+        if (this.queued.remove(request)) {
+            request.updatePriority(priority);
+            this.queued.add(request);
+        } else {
+            request.updatePriority(priority);
+        }
+    }
+
+    /**
+     * Cancel a request if it did not start yet.
+     *
+     * @param request Request to cancel.
+     * @return true if the request was cancelled.
+     */
+    boolean cancel(final ResourceLoadRequest request) {
+        synchronized (this) {
+            if (!this.queued.remove(request)) {
+                return false;
+            }
+            this.queuedBytes -= request.getExpectedSize();
+            this.cancelled++;
+        }
+        request.getFuture().cancel(false);
+        return true;
+    }
+
+    /**
+     * Take the requests to start, according to the number of running loadings, must be called while holding the lock.
+     *
+     * @return The requests to start.
+     */
+    private List<ResourceLoadRequest> selectToRun() {
+        List<ResourceLoadRequest> result = new ArrayList<>();
+        while (this.running < this.maxRunning && !this.queued.isEmpty()) {
+            ResourceLoadRequest request = this.queued.pollFirst();
+            this.queuedBytes -= request.getExpectedSize();
+            this.runningBytes += request.getExpectedSize();
+            this.running++;
+            result.add(request);
+        }
+        return result;
+    }
+
+    /**
+     * Start the loadings, must be called without holding the lock.
+     *
+     * @param toRun Requests to start.
+     */
+    private void runAll(final List<ResourceLoadRequest> toRun) {
+        for (ResourceLoadRequest request : toRun) {
+            try {
+                this.executor.execute(() -> this.run(request));
+            } catch (RejectedExecutionException e) {
+                this.complete(request, e);
+            }
+        }
+    }
+
+    /**
+     * Load the resource of a request, the request is always completed, an error is then rethrown to the executor.
+     *
+     * @param request Request to run.
+     */
+    private void run(final ResourceLoadRequest request) {
+        Throwable failure = null;
+        try {
+            request.getResource().load();
+        } catch (RuntimeException e) {
+            failure = e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            this.complete(request, failure);
+        }
+    }
+
+    /**
+     * Account a finished loading, complete its future, and start the next loadings.
+     *
+     * @param request Finished request.
+     * @param cause   Exception thrown by the loading, null if it succeeded.
+     */
+    private void complete(final ResourceLoadRequest request, final Throwable cause) {
+        List<ResourceLoadRequest> toRun;
+        synchronized (this) {
+            this.running--;
+            this.runningBytes -= request.getExpectedSize();
+            if (cause == null) {
+                this.done++;
+                long size = request.getResource().getSize();
+                this.doneBytes += size > 0 ? size : request.getExpectedSize();
+            } else {
+                this.failed++;
+            }
+            toRun = this.selectToRun();
+        }
+        if (cause == null) {
+            request.getFuture().complete(request.getResource());
+        } else {
+            request.getFuture().completeExceptionally(cause);
+        }
+        this.runAll(toRun);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loading of a resource submitted to a ResourceLoadQueue, its priority can be changed and it can be cancelled as long
+ * as it did not start.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoadRequest {
+
+    /**
+     * Queue running this request.
+     */
+    private final ResourceLoadQueue queue;
+
+    /**
+     * Resource to load.
+     */
+    private final Resource resource;
+
+    /**
+     * Expected size of the resource, in bytes.
+     */
+    private final long expectedSize;
+
+    /**
+     * Submission order, requests with the same priority are run in this order.
+     */
+    private final long sequence;
+
+    /**
+     * Future completed once the loading is done.
+     */
+    private final CompletableFuture<Resource> future = new CompletableFuture<>();
+
+    /**
+     * Request priority, higher first, only changed by the queue while holding its lock.
+     */
+    private volatile int priority;
+
+    ResourceLoadRequest(final ResourceLoadQueue queue, final Resource resource, final int priority, final long expectedSize, final long sequence) {
+        super();
+        this.queue = queue;
+        this.resource = resource;
+        this.priority = priority;
+        this.expectedSize = expectedSize;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Change the priority, if the loading did not start yet, it is moved in the queue accordingly.
+     *
+     * @param priority New priority, higher first.
+     */
+    public void setPriority(final int priority) {
+        this.queue.changePriority(this, priority);
+    }
+
+    /**
+     * Cancel the loading if it did not start yet, the future is then cancelled.
+     *
+     * @return true if the loading was cancelled, false if it already started.
+     */
+    public boolean cancel() {
+        return this.queue.cancel(this);
+    }
+
+    /**
+     * @return The resource to load.
+     */
+    public Resource getResource() {
+        return this.resource;
+    }
+
+    /**
+     * @return The request priority, higher first.
+     */
+    public int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * @return The expected size of the resource, in bytes.
+     */
+    public long getExpectedSize() {
+        return this.expectedSize;
+    }
+
+    /**
+     * Provide a future completed with the resource once loaded, completed exceptionally if the loading failed, and
+     * cancelled if the request is cancelled, cancelling it cancels the request if the loading did not start.
+     *
+     * @return The future of the loading.
+     */
+    public CompletableFuture<Resource> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * @return true if the request was cancelled before its loading started.
+     */
+    public boolean isCancelled() {
+        return this.future.isCancelled();
+    }
+
+    /**
+     * @return The submission order.
+     */
+    long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Set the priority, must be called by the queue while holding its lock.
+     *
+     * @param priority New priority.
+     */
+    void updatePriority(final int priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor meant to run resource loadings blocking on I/O.
+ * On runtimes supporting them, every loading is run on its own virtual thread, so thousands of loadings can wait for
+ * I/O at the same time cheaply, on older runtimes, a pool of platform threads is used instead.
+ * The number of loadings running at the same time on a given I/O device can be limited, to avoid saturating it,
+ * loadings above the limit are queued by device and only submitted once a permit is available, so a saturated device
+ * never holds threads of the pool needed by the other devices.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceLoader implements Executor, AutoCloseable {
+
+    /**
+     * Executor running the loadings.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * true if the executor uses virtual threads.
+     */
+    private final boolean virtual;
+
+    /**
+     * Number of loadings allowed at the same time on a device without a specific limit.
+     */
+    private final int defaultDeviceLimit;
+
+    /**
+     * Executors limiting the loadings running on each device, by device name.
+     */
+    private final Map<String, DeviceExecutor> devices = new ConcurrentHashMap<>();
+
+    private ResourceLoader(final ExecutorService executor, final boolean virtual, final int defaultDeviceLimit) {
+        super();
+        Checker.exceptionNotGreaterThanZero(defaultDeviceLimit);
+        this.executor = executor;
+        this.virtual = virtual;
+        this.defaultDeviceLimit = defaultDeviceLimit;
+    }
+
+    /**
+     * Create a new loader, using virtual threads if the runtime supports them, or a pool of platform threads sized
+     * after the available processors.
+     *
+     * @param defaultDeviceLimit Number of loadings allowed at the same time on a device without a specific limit.
+     * @return The created loader.
+     */
+    public static ResourceLoader newLoader(final int defaultDeviceLimit) {
+        return newLoader(defaultDeviceLimit, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Create a new loader, using virtual threads if the runtime supports them, or a pool of platform threads.
+     *
+     * @param defaultDeviceLimit Number of loadings allowed at the same time on a device without a specific limit.
+     * @param fallbackThreads    Number of platform threads to use if virtual threads are not supported.
+     * @return The created loader.
+     */
+    public static ResourceLoader newLoader(final int defaultDeviceLimit, final int fallbackThreads) {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            return new ResourceLoader(virtualExecutor, true, defaultDeviceLimit);
+        }
+        return newPlatformLoader(defaultDeviceLimit, fallbackThreads);
+    }
+
+    /**
+     * Create a new loader using a pool of platform threads, even if the runtime supports virtual threads.
+     *
+     * @param defaultDeviceLimit Number of loadings allowed at the same time on a device without a specific limit.
+     * @param threads            Number of platform threads to use.
+     * @return The created loader.
+     */
+    public static ResourceLoader newPlatformLoader(final int defaultDeviceLimit, final int threads) {
+        Checker.exceptionNotGreaterThanZero(threads);
+        AtomicInteger count = new AtomicInteger();
+        return new ResourceLoader(Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "resource-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), false, defaultDeviceLimit);
+    }
+
+    /**
+     * Create an executor running every task on a new virtual thread, the method is retrieved by reflection as it is
+     * not available on all supported runtimes.
+     *
+     * @return The created executor, or null if virtual threads are not supported.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Limit the number of loadings running at the same time on a device, must be called before the device is used.
+     *
+     * @param device Name of the device.
+     * @param limit  Number of loadings allowed at the same time.
+     * @throws IllegalStateException If the device is already used.
+     */
+    public void setDeviceLimit(final String device, final int limit) {
+        Checker.exceptionNotGreaterThanZero(limit);
+        if (this.devices.putIfAbsent(device, new DeviceExecutor(this.executor, limit)) != null) {
+            throw new IllegalStateException(device + " limit must be set before being used");
+        }
+    }
+
+    /**
+     * Provide an executor limiting the loadings running at the same time on a device, to be used with
+     * Resource.loadAsync, ResourceGraph or ResourceManifest. Waiting loadings are queued and do not use any thread.
+     *
+     * @param device Name of the device.
+     * @return The executor for the device.
+     */
+    public Executor forDevice(final String device) {
+        return this.devices.computeIfAbsent(device, d -> new DeviceExecutor(this.executor, this.defaultDeviceLimit));
+    }
+
+    /**
+     * Load a resource in background, limited by its device.
+     *
+     * @param resource Resource to load.
+     * @param device   Name of the device containing the resource.
+     * @return A future completed with the resource once loaded, or completed exceptionally if the loading failed.
+     */
+    public CompletableFuture<Resource> load(final Resource resource, final String device) {
+        return resource.loadAsync(this.forDevice(device));
+    }
+
+    /**
+     * Run a task without any device limit.
+     *
+     * @param task Task to run.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        this.executor.execute(task);
+    }
+
+    /**
+     * @return true if the loadings are run on virtual threads, false if a platform thread pool is used.
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Stop accepting new loadings, running ones are completed.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Executor queuing the tasks of a device, and submitting them to the loader executor only when one of the device
+     * permits is available, a permit is given back and the next task submitted when a task completes.
+     * Once the loader is closed, no new task is accepted, and the tasks already queued are run by the thread completing
+     * the previous one.
+     */
+    private static final class DeviceExecutor implements Executor {
+
+        /**
+         * Executor running the submitted tasks.
+         */
+        private final ExecutorService executor;
+
+        /**
+         * Tasks waiting for a permit.
+         */
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Number of tasks that can still be submitted before reaching the device limit.
+         */
+        private final AtomicInteger permits;
+
+        private DeviceExecutor(final ExecutorService executor, final int limit) {
+            super();
+            this.executor = executor;
+            this.permits = new AtomicInteger(limit);
+        }
+
+        @Override
+        public void execute(final Runnable task) {
+            if (this.executor.isShutdown()) {
+                throw new RejectedExecutionException("Resource loader is closed");
+            }
+            this.pending.add(task);
+            this.submitPending();
+        }
+
+        /**
+         * Submit pending tasks as long as permits are available, the permit is taken before polling the task, so a
+         * task added while the last permit is given back is always submitted by one of the two threads.
+         */
+        private void submitPending() {
+            while (!this.pending.isEmpty()) {
+                int available = this.permits.get();
+                if (available == 0) {
+                    return;
+                }
+                if (this.permits.compareAndSet(available, available - 1)) {
+                    Runnable task = this.pending.poll();
+                    if (task == null) {
+                        this.permits.incrementAndGet();
+                    } else if (!this.submit(task)) {
+                        try {
+                            task.run();
+                        } finally {
+                            this.permits.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Submit a task to the loader executor.
+         *
+         * @param task Task to submit.
+         * @return false if the task was rejected because the loader was closed in the meantime.
+         */
+        private boolean submit(final Runnable task) {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        this.permits.incrementAndGet();
+                        this.submitPending();
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+    }
+}
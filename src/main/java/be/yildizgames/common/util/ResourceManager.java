@@ -0,0 +1,391 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep the loaded resources within a memory budget.
+ * Managed resources report their size once loaded, when the total exceeds the budget, the least recently used
+ * resources are unloaded until the budget is respected again. Pinned resources and resources referenced by a handle
+ * are never unloaded by the manager.
+ * A resource is considered used when loaded or touched.
+ * The manager can also unload the resources as soon as their last handle is closed, or after a grace period, so a
+ * resource acquired again quickly is not loaded twice.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceManager {
+
+    /**
+     * Managed resources, by name.
+     */
+    private final Map<String, Resource> resources = new LinkedHashMap<>();
+
+    /**
+     * Size of the loaded resources, by name, from the least to the most recently used.
+     */
+    private final Map<String, Long> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Name of the resources that cannot be unloaded by the manager.
+     */
+    private final Set<String> pinned = new HashSet<>();
+
+    /**
+     * Maximum memory for the loaded resources, in bytes.
+     */
+    private final long budget;
+
+    /**
+     * Delay before unloading a resource no longer referenced, in milliseconds, 0 to unload immediately, -1 to only
+     * unload it if the budget is exceeded.
+     */
+    private final long releaseDelay;
+
+    /**
+     * Scheduler used to unload the resources no longer referenced after the delay, null if not needed.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Listener registered on the managed resources.
+     */
+    private final ResourceListener listener = new ManagerListener();
+
+    /**
+     * Memory used by the loaded resources, in bytes.
+     */
+    private long used;
+
+    /**
+     * Number of resources unloaded by the manager.
+     */
+    private long unloadCount;
+
+    private ResourceManager(final long budget, final long releaseDelay, final ScheduledExecutorService scheduler) {
+        super();
+        Checker.exceptionNotGreaterThanZero(budget);
+        this.budget = budget;
+        this.releaseDelay = releaseDelay;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Create a new resource manager, resources are only unloaded when the budget is exceeded.
+     *
+     * @param budget Maximum memory for the loaded resources, in bytes.
+     * @return The created manager.
+     */
+    public static ResourceManager newManager(final long budget) {
+        return new ResourceManager(budget, -1, null);
+    }
+
+    /**
+     * Create a new resource manager, unloading the resources as soon as their last handle is closed.
+     *
+     * @param budget Maximum memory for the loaded resources, in bytes.
+     * @return The created manager.
+     */
+    public static ResourceManager newReleasingManager(final long budget) {
+        return new ResourceManager(budget, 0, null);
+    }
+
+    /**
+     * Create a new resource manager, unloading the resources once their last handle has been closed for a given
+     * delay, unless a new handle is acquired meanwhile.
+     *
+     * @param budget       Maximum memory for the loaded resources, in bytes.
+     * @param releaseDelay Delay before unloading a resource no longer referenced, in milliseconds.
+     * @param scheduler    Scheduler used to unload the resources after the delay.
+     * @return The created manager.
+     */
+    public static ResourceManager newReleasingManager(final long budget, final long releaseDelay, final ScheduledExecutorService scheduler) {
+        Checker.exceptionNotPositive(releaseDelay);
+        return new ResourceManager(budget, releaseDelay, scheduler);
+    }
+
+    /**
+     * Manage a resource, if already loaded, it is accounted immediately.
+     *
+     * @param resource Resource to manage.
+     * @throws InvalidParameterException If a resource with the same name is already managed.
+     */
+    public void manage(final Resource resource) {
+        synchronized (this) {
+            if (this.resources.containsKey(resource.getName())) {
+                throw new InvalidParameterException(resource.getName() + " is already managed");
+            }
+            this.resources.put(resource.getName(), resource);
+        }
+        resource.addListener(this.listener);
+        if (resource.isLoaded()) {
+            this.loaded(resource);
+        }
+    }
+
+    /**
+     * Stop managing a resource, the resource is not unloaded.
+     *
+     * @param resource Resource to release.
+     */
+    public void release(final Resource resource) {
+        resource.removeListener(this.listener);
+        synchronized (this) {
+            if (this.resources.remove(resource.getName()) != null) {
+                this.forget(resource.getName());
+                this.pinned.remove(resource.getName());
+            }
+        }
+    }
+
+    /**
+     * Load a resource if needed, and mark it as the most recently used.
+     *
+     * @param resource Resource to load.
+     */
+    public void load(final Resource resource) {
+        resource.load();
+        this.touch(resource);
+    }
+
+    /**
+     * Mark a resource as the most recently used, it will be the last one to be unloaded.
+     *
+     * @param resource Resource used.
+     */
+    public synchronized void touch(final Resource resource) {
+        this.loaded.get(resource.getName());
+    }
+
+    /**
+     * Prevent a resource to be unloaded by the manager.
+     *
+     * @param resource Resource to pin.
+     */
+    public synchronized void pin(final Resource resource) {
+        this.pinned.add(resource.getName());
+    }
+
+    /**
+     * Allow a pinned resource to be unloaded again, resources are unloaded if the budget is exceeded.
+     *
+     * @param resource Resource to unpin.
+     */
+    public void unpin(final Resource resource) {
+        List<Resource> toUnload;
+        synchronized (this) {
+            this.pinned.remove(resource.getName());
+            toUnload = this.selectToUnload(null);
+        }
+        this.unloadAll(toUnload);
+    }
+
+    /**
+     * @return The maximum memory for the loaded resources, in bytes.
+     */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * @return The memory used by the loaded resources, in bytes.
+     */
+    public synchronized long getUsedMemory() {
+        return this.used;
+    }
+
+    /**
+     * @return The number of resources unloaded by the manager, to respect the budget or because no longer referenced.
+     */
+    public synchronized long getUnloadCount() {
+        return this.unloadCount;
+    }
+
+    /**
+     * Account a loaded resource, and unload the least recently used ones if the budget is exceeded.
+     *
+     * @param resource Loaded resource.
+     */
+    private void loaded(final Resource resource) {
+        List<Resource> toUnload;
+        synchronized (this) {
+            if (!this.resources.containsKey(resource.getName())) {
+                return;
+            }
+            this.forget(resource.getName());
+            long size = resource.getSize();
+            this.loaded.put(resource.getName(), size);
+            this.used += size;
+            toUnload = this.selectToUnload(resource.getName());
+        }
+        this.unloadAll(toUnload);
+    }
+
+    /**
+     * Stop accounting an unloaded resource.
+     *
+     * @param resource Unloaded resource.
+     */
+    private synchronized void unloaded(final Resource resource) {
+        this.forget(resource.getName());
+    }
+
+    /**
+     * Unload a resource no longer referenced, immediately or after the delay, or only if the budget is exceeded.
+     *
+     * @param resource Resource no longer referenced.
+     */
+    private void unreferenced(final Resource resource) {
+        if (this.releaseDelay == 0) {
+            this.unloadUnreferenced(resource);
+        } else if (this.releaseDelay > 0) {
+            this.scheduler.schedule(() -> this.unloadUnreferenced(resource), this.releaseDelay, TimeUnit.MILLISECONDS);
+        } else {
+            List<Resource> toUnload;
+            synchronized (this) {
+                toUnload = this.selectToUnload(null);
+            }
+            this.unloadAll(toUnload);
+        }
+    }
+
+    /**
+     * Unload a resource if it is managed, not pinned, and still not referenced.
+     *
+     * @param resource Resource to unload.
+     */
+    private void unloadUnreferenced(final Resource resource) {
+        synchronized (this) {
+            if (this.resources.get(resource.getName()) != resource || this.pinned.contains(resource.getName())
+                    || resource.getReferenceCount() > 0) {
+                return;
+            }
+        }
+        if (resource.unload()) {
+            synchronized (this) {
+                this.unloadCount++;
+            }
+        }
+    }
+
+    /**
+     * Remove a resource from the loaded ones, if present.
+     *
+     * @param name Resource name.
+     */
+    private void forget(final String name) {
+        Long size = this.loaded.remove(name);
+        if (size != null) {
+            this.used -= size;
+        }
+    }
+
+    /**
+     * Select the least recently used resources to unload until the budget is respected, they are removed from the
+     * loaded ones. Must be called while holding the lock.
+     *
+     * @param kept Name of a resource not to unload, can be null.
+     * @return The resources to unload.
+     */
+    private List<Resource> selectToUnload(final String kept) {
+        List<Resource> result = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = this.loaded.entrySet().iterator();
+        while (this.used > this.budget && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            Resource resource = this.resources.get(entry.getKey());
+            if (!entry.getKey().equals(kept) && !this.pinned.contains(entry.getKey()) && resource.getReferenceCount() == 0) {
+                iterator.remove();
+                this.used -= entry.getValue();
+                this.unloadCount++;
+                result.add(resource);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unload resources, must be called without holding the lock, resources acquired meanwhile are accounted again.
+     *
+     * @param toUnload Resources to unload.
+     */
+    private void unloadAll(final List<Resource> toUnload) {
+        for (Resource resource : toUnload) {
+            if (!resource.unload()) {
+                this.restore(resource);
+            }
+        }
+    }
+
+    /**
+     * Account again a resource selected to be unloaded but still loaded.
+     *
+     * @param resource Resource to account.
+     */
+    private synchronized void restore(final Resource resource) {
+        if (this.resources.get(resource.getName()) == resource && resource.isLoaded() && !this.loaded.containsKey(resource.getName())) {
+            long size = resource.getSize();
+            this.loaded.put(resource.getName(), size);
+            this.used += size;
+            this.unloadCount--;
+        }
+    }
+
+    /**
+     * Forward the resource events to the manager, without exposing the callbacks in the manager API.
+     */
+    private final class ManagerListener implements ResourceListener {
+
+        @Override
+        public void loaded(final Resource resource) {
+            ResourceManager.this.loaded(resource);
+        }
+
+        @Override
+        public void reloaded(final Resource resource) {
+            ResourceManager.this.loaded(resource);
+        }
+
+        @Override
+        public void unloaded(final Resource resource) {
+            ResourceManager.this.unloaded(resource);
+        }
+
+        @Override
+        public void unreferenced(final Resource resource) {
+            ResourceManager.this.unreferenced(resource);
+        }
+    }
+}
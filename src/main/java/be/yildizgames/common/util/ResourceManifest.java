@@ -0,0 +1,172 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * List of resources loaded during a previous run, in the order they were first loaded, used to preload them on startup
+ * before they are requested.
+ * A manifest is stored as a text file, one resource per line, with the time it was first loaded, in milliseconds since
+ * the recording started, followed by its name.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceManifest {
+
+    /**
+     * Resource names, in priority order.
+     */
+    private final List<String> names;
+
+    /**
+     * Time each resource was first loaded, in milliseconds since the recording started.
+     */
+    private final long[] loadTimes;
+
+    /**
+     * Create a new manifest.
+     *
+     * @param names     Resource names, in priority order.
+     * @param loadTimes Time each resource was first loaded.
+     */
+    ResourceManifest(final List<String> names, final long[] loadTimes) {
+        super();
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        this.loadTimes = loadTimes.clone();
+    }
+
+    /**
+     * Read a manifest file.
+     *
+     * @param file File to read.
+     * @return The read manifest.
+     * @throws IOException If the file cannot be read, or is not a valid manifest.
+     */
+    public static ResourceManifest read(final Path file) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int separator = line.indexOf(' ');
+                if (separator <= 0 || separator == line.length() - 1) {
+                    throw new IOException(file + " is not a valid manifest: " + line);
+                }
+                try {
+                    times.add(Long.parseLong(line.substring(0, separator)));
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + " is not a valid manifest: " + line, e);
+                }
+                names.add(line.substring(separator + 1));
+            }
+        }
+        long[] loadTimes = new long[times.size()];
+        for (int i = 0; i < loadTimes.length; i++) {
+            loadTimes[i] = times.get(i);
+        }
+        return new ResourceManifest(names, loadTimes);
+    }
+
+    /**
+     * Write this manifest in a file, the file is replaced atomically.
+     *
+     * @param file File to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(final Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < this.names.size(); i++) {
+                writer.write(Long.toString(this.loadTimes[i]));
+                writer.write(' ');
+                writer.write(this.names.get(i));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load all the resources of this manifest in background, in priority order, the loadings are run in parallel if
+     * the executor allows it. Resources not found in the registerer are ignored, failing resources are not retried.
+     *
+     * @param registerer Registerer containing the resources to load.
+     * @param executor   Executor running the loadings.
+     * @return A future completed once all loadings are done, with the number of resources successfully loaded.
+     */
+    public CompletableFuture<Integer> preload(final Registerer<? extends Resource> registerer, final Executor executor) {
+        AtomicInteger loaded = new AtomicInteger();
+        List<CompletableFuture<?>> loadings = new ArrayList<>(this.names.size());
+        for (String name : this.names) {
+            registerer.find(name).ifPresent(r -> loadings.add(r.loadAsync(executor).handle((v, e) -> {
+                if (e == null) {
+                    loaded.incrementAndGet();
+                }
+                return null;
+            })));
+        }
+        return CompletableFuture.allOf(loadings.toArray(new CompletableFuture<?>[0])).thenApply(v -> loaded.get());
+    }
+
+    /**
+     * @return The resource names, in priority order.
+     */
+    public List<String> getNames() {
+        return this.names;
+    }
+
+    /**
+     * Provide the time a resource was first loaded during the recording.
+     *
+     * @param index Index of the resource in the priority order.
+     * @return The time the resource was first loaded, in milliseconds since the recording started.
+     */
+    public long getLoadTime(final int index) {
+        return this.loadTimes[index];
+    }
+
+    /**
+     * @return The number of resources in this manifest.
+     */
+    public int size() {
+        return this.names.size();
+    }
+}
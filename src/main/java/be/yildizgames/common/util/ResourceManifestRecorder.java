@@ -0,0 +1,121 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record the resources loaded during a run, to build a manifest used to preload them on the next startup.
+ * Only the first loading of each resource is recorded, the manifest priority is the order of those first loadings.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceManifestRecorder implements ResourceListener {
+
+    /**
+     * Time the first loading of each resource was recorded, in milliseconds since the recording started, by name, in
+     * recording order.
+     */
+    private final Map<String, Long> loadTimes = new LinkedHashMap<>();
+
+    /**
+     * Time the recording started, in nanoseconds.
+     */
+    private final long start = System.nanoTime();
+
+    private ResourceManifestRecorder() {
+        super();
+    }
+
+    /**
+     * Create a new recorder, the recording starts immediately.
+     *
+     * @return The created recorder.
+     */
+    public static ResourceManifestRecorder newRecorder() {
+        return new ResourceManifestRecorder();
+    }
+
+    /**
+     * Record the loadings of a resource, if already loaded, it is recorded immediately.
+     *
+     * @param resource Resource to record.
+     */
+    public void record(final Resource resource) {
+        resource.addListener(this);
+        if (resource.isLoaded()) {
+            this.loaded(resource);
+        }
+    }
+
+    /**
+     * Stop recording the loadings of a resource, an already recorded loading is kept.
+     *
+     * @param resource Resource to stop recording.
+     */
+    public void stopRecording(final Resource resource) {
+        resource.removeListener(this);
+    }
+
+    @Override
+    public void loaded(final Resource resource) {
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start);
+        synchronized (this.loadTimes) {
+            this.loadTimes.putIfAbsent(resource.getName(), time);
+        }
+    }
+
+    /**
+     * Build a manifest from the loadings recorded so far.
+     *
+     * @return The manifest.
+     */
+    public ResourceManifest toManifest() {
+        List<String> names;
+        long[] times;
+        synchronized (this.loadTimes) {
+            names = new ArrayList<>(this.loadTimes.keySet());
+            times = this.loadTimes.values().stream().mapToLong(Long::longValue).toArray();
+        }
+        return new ResourceManifest(names, times);
+    }
+
+    /**
+     * Write the loadings recorded so far in a manifest file.
+     *
+     * @param file File to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(final Path file) throws IOException {
+        this.toManifest().write(file);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Archive containing many resources in a single file, to avoid the cost of opening a file per resource.
+ * The archive starts with an index giving the position and size of every resource by name, the content of a resource
+ * is then read with a single positional read, or mapped. Resources can be stored compressed.
+ * Archives are built with the ResourcePacker.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourcePack implements AutoCloseable {
+
+    /**
+     * Magic number identifying the file format: YPAK.
+     */
+    static final int MAGIC = 0x5950414B;
+
+    /**
+     * Version of the file format.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Size of the header, in bytes: magic, version, entry number and index size.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Size of an index entry without its name, in bytes: name size, offset, stored size, original size and flags.
+     */
+    static final int ENTRY_SIZE = Short.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+    /**
+     * Flag set on the compressed entries.
+     */
+    static final byte COMPRESSED = 1;
+
+    /**
+     * Archive file.
+     */
+    private final Path file;
+
+    /**
+     * Channel used to read the content.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Entries, by resource name.
+     */
+    private final Map<String, Entry> entries;
+
+    private ResourcePack(final Path file, final FileChannel channel, final Map<String, Entry> entries) {
+        super();
+        this.file = file;
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Open an archive built by the ResourcePacker, only the index is read.
+     *
+     * @param file Archive to open.
+     * @return The opened archive.
+     * @throws IOException If the file cannot be read, or is not a valid archive.
+     */
+    public static ResourcePack open(final Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        boolean opened = false;
+        try {
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE, file);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a resource pack.");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException(file + " has an unsupported version: " + version);
+            }
+            int count = header.getInt();
+            int indexSize = header.getInt();
+            long fileSize = channel.size();
+            //Checked before any allocation, each entry takes at least ENTRY_SIZE bytes in the index.
+            if (count < 0 || indexSize < 0 || HEADER_SIZE + (long) indexSize > fileSize || (long) count * ENTRY_SIZE > indexSize) {
+                throw new IOException(file + " is corrupted.");
+            }
+            ByteBuffer index = readFully(channel, HEADER_SIZE, indexSize, file);
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[index.getShort() & 0xFFFF];
+                index.get(name);
+                Entry entry = new Entry(index.getLong(), index.getInt(), index.getInt(), index.get());
+                if (entry.offset < HEADER_SIZE + indexSize || entry.storedSize < 0 || entry.originalSize < 0
+                        || entry.offset + entry.storedSize > fileSize) {
+                    throw new IOException(file + " is corrupted.");
+                }
+                entries.put(new String(name, StandardCharsets.UTF_8), entry);
+            }
+            opened = true;
+            return new ResourcePack(file, channel, entries);
+        } catch (RuntimeException e) {
+            throw new IOException(file + " is corrupted.", e);
+        } finally {
+            if (!opened) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Read bytes from a given position until the buffer is full.
+     *
+     * @param channel  Channel to read.
+     * @param position Position of the first byte.
+     * @param size     Number of bytes to read.
+     * @param file     File read, for error messages.
+     * @return A buffer containing the bytes, ready to be read.
+     * @throws IOException If the end of the file is reached.
+     */
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int size, final Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(file + " is truncated.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Read the content of a resource, decompressed if needed.
+     *
+     * @param name Name of the resource.
+     * @return The resource content.
+     * @throws InvalidParameterException If the resource is not in the archive.
+     * @throws IOException               If the content cannot be read.
+     */
+    public ByteBuffer read(final String name) throws IOException {
+        Entry entry = this.entry(name);
+        ByteBuffer stored = readFully(this.channel, entry.offset, entry.storedSize, this.file);
+        if ((entry.flags & COMPRESSED) == 0) {
+            return stored;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored.array());
+            byte[] result = new byte[entry.originalSize];
+            int size = 0;
+            while (size < result.length && !inflater.finished()) {
+                int read = inflater.inflate(result, size, result.length - size);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += read;
+            }
+            if (size != result.length) {
+                throw new IOException(name + " is corrupted in " + this.file);
+            }
+            return ByteBuffer.wrap(result);
+        } catch (DataFormatException e) {
+            throw new IOException(name + " is corrupted in " + this.file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Create a resource mapping the content of an uncompressed resource, the archive does not need to stay open.
+     *
+     * @param name Name of the resource.
+     * @return The created resource, not loaded.
+     * @throws InvalidParameterException If the resource is not in the archive, or is compressed.
+     */
+    public MappedResource newMappedResource(final String name) {
+        Entry entry = this.entry(name);
+        if ((entry.flags & COMPRESSED) != 0) {
+            throw new InvalidParameterException(name + " is compressed and cannot be mapped");
+        }
+        return MappedResource.newMappedResource(name, this.file, entry.offset, entry.storedSize);
+    }
+
+    /**
+     * Check if a resource is in the archive.
+     *
+     * @param name Name of the resource.
+     * @return true if the resource is in the archive.
+     */
+    public boolean contains(final String name) {
+        return this.entries.containsKey(name);
+    }
+
+    /**
+     * Provide the size of a resource once read.
+     *
+     * @param name Name of the resource.
+     * @return The size of the resource content, decompressed, in bytes.
+     * @throws InvalidParameterException If the resource is not in the archive.
+     */
+    public int getSize(final String name) {
+        return this.entry(name).originalSize;
+    }
+
+    /**
+     * @return The names of all resources in the archive.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(this.entries.keySet());
+    }
+
+    /**
+     * @return The number of resources in the archive.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Retrieve the entry of a resource.
+     *
+     * @param name Name of the resource.
+     * @return The entry.
+     * @throws InvalidParameterException If the resource is not in the archive.
+     */
+    private Entry entry(final String name) {
+        Entry entry = this.entries.get(name);
+        if (entry == null) {
+            throw new InvalidParameterException(name + " not found");
+        }
+        return entry;
+    }
+
+    /**
+     * Position and size of a resource in the archive.
+     */
+    private static final class Entry {
+
+        /**
+         * Position of the content in the file.
+         */
+        private final long offset;
+
+        /**
+         * Size of the content in the file.
+         */
+        private final int storedSize;
+
+        /**
+         * Size of the content once decompressed.
+         */
+        private final int originalSize;
+
+        /**
+         * Entry flags.
+         */
+        private final byte flags;
+
+        private Entry(final long offset, final int storedSize, final int originalSize, final byte flags) {
+            super();
+            this.offset = offset;
+            this.storedSize = storedSize;
+            this.originalSize = originalSize;
+            this.flags = flags;
+        }
+    }
+}
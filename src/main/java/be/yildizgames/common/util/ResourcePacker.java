@@ -0,0 +1,145 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/**
+ * Build resource archives, to be read with ResourcePack.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourcePacker {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ResourcePacker() {
+        super();
+    }
+
+    /**
+     * Build an archive from all the files of a directory and its sub directories.
+     * Every file is a resource named after its path relative to the directory, using '/' as separator.
+     * The archive is first written next to the destination, and then moved, so an existing archive is never left
+     * partially written.
+     *
+     * @param directory Directory containing the files to pack.
+     * @param archive   Archive to create.
+     * @param compress  true to compress the resources, a resource is only stored compressed if it is smaller.
+     * @return The number of packed resources.
+     * @throws IOException If a file cannot be read, or the archive cannot be written.
+     */
+    public static int pack(final Path directory, final Path archive, final boolean compress) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        List<byte[]> names = new ArrayList<>(files.size());
+        int indexSize = 0;
+        for (Path file : files) {
+            byte[] name = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/")
+                    .getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                throw new IOException("Name too long: " + file);
+            }
+            names.add(name);
+            indexSize += ResourcePack.ENTRY_SIZE + name.length;
+        }
+        ByteBuffer index = ByteBuffer.allocate(ResourcePack.HEADER_SIZE + indexSize);
+        index.putInt(ResourcePack.MAGIC);
+        index.putInt(ResourcePack.FORMAT_VERSION);
+        index.putInt(files.size());
+        index.putInt(indexSize);
+        Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = index.capacity();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (int i = 0; i < files.size(); i++) {
+                    byte[] content = Files.readAllBytes(files.get(i));
+                    byte[] stored = compress ? deflate(deflater, content) : content;
+                    byte flags = stored == content ? 0 : ResourcePack.COMPRESSED;
+                    index.putShort((short) names.get(i).length);
+                    index.put(names.get(i));
+                    index.putLong(offset);
+                    index.putInt(stored.length);
+                    index.putInt(content.length);
+                    index.put(flags);
+                    ByteBuffer data = ByteBuffer.wrap(stored);
+                    while (data.hasRemaining()) {
+                        offset += channel.write(data, offset);
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+            index.flip();
+            long position = 0;
+            while (index.hasRemaining()) {
+                position += channel.write(index, position);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return files.size();
+    }
+
+    /**
+     * Compress content.
+     *
+     * @param deflater Deflater to use, reset before use.
+     * @param content  Content to compress.
+     * @return The compressed content, or the content itself if compressing does not make it smaller.
+     */
+    private static byte[] deflate(final Deflater deflater, final byte[] content) {
+        deflater.reset();
+        deflater.setInput(content);
+        deflater.finish();
+        byte[] result = new byte[content.length];
+        int size = 0;
+        while (!deflater.finished() && size < result.length) {
+            size += deflater.deflate(result, size, result.length - size);
+        }
+        if (!deflater.finished() || size >= content.length) {
+            return content;
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
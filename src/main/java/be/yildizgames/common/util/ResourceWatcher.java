@@ -0,0 +1,295 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reload resources when their files change on the disk.
+ * Changes are debounced: resources are reloaded once no change happened for a given delay, all resources changed
+ * during that time are reloaded in a single batch, each one only once. Only loaded resources are reloaded, they stay
+ * loaded during the reloading, see Resource.reload, only reloadable resources can be watched.
+ * The number of reloadings, failed reloadings, and the latency between the first change of a batch and the end of
+ * its reloading are reported.
+ * This class is thread safe.
+ *
+ * @author Grégory Van Den Borre
+ */
+public final class ResourceWatcher implements Engine {
+
+    /**
+     * Service notified of the file changes.
+     */
+    private final WatchService service;
+
+    /**
+     * Delay without change before reloading, in milliseconds.
+     */
+    private final long debounce;
+
+    /**
+     * Resources to reload when a file changes, by absolute file path.
+     */
+    private final Map<Path, List<Resource>> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Directories already watched.
+     */
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of successful reloadings.
+     */
+    private final LongAdder reloadCount = new LongAdder();
+
+    /**
+     * Number of failed reloadings.
+     */
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * Latency of the last batch, in nanoseconds.
+     */
+    private final AtomicLong lastLatency = new AtomicLong();
+
+    /**
+     * Highest batch latency, in nanoseconds.
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Thread waiting for changes and reloading, null if not started.
+     */
+    private Thread thread;
+
+    private ResourceWatcher(final WatchService service, final long debounce) {
+        super();
+        Checker.exceptionNotPositive(debounce);
+        this.service = service;
+        this.debounce = debounce;
+    }
+
+    /**
+     * Create a new watcher, not started.
+     *
+     * @param debounce Delay without change before reloading, in milliseconds.
+     * @return The created watcher.
+     * @throws IOException If the file system cannot be watched.
+     */
+    public static ResourceWatcher newWatcher(final long debounce) throws IOException {
+        return new ResourceWatcher(FileSystems.getDefault().newWatchService(), debounce);
+    }
+
+    /**
+     * Reload a resource when a file is created or modified.
+     *
+     * @param file     File to watch.
+     * @param resource Resource to reload.
+     * @throws IOException If the file directory cannot be watched.
+     * @throws IllegalArgumentException If the resource is not reloadable.
+     */
+    public void watch(final Path file, final Resource resource) throws IOException {
+        if (!resource.isReloadable()) {
+            throw new IllegalArgumentException(resource.getName() + " cannot be reloaded");
+        }
+        Path absolute = file.toAbsolutePath().normalize();
+        Path directory = absolute.getParent();
+        if (this.directories.add(directory)) {
+            try {
+                directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException | RuntimeException e) {
+                this.directories.remove(directory);
+                throw e;
+            }
+        }
+        this.resources.computeIfAbsent(absolute, p -> new CopyOnWriteArrayList<>()).add(resource);
+    }
+
+    /**
+     * Stop reloading a resource when a file changes.
+     *
+     * @param file     Watched file.
+     * @param resource Resource to stop reloading.
+     */
+    public void unwatch(final Path file, final Resource resource) {
+        List<Resource> list = this.resources.get(file.toAbsolutePath().normalize());
+        if (list != null) {
+            list.remove(resource);
+        }
+    }
+
+    /**
+     * Start watching the changes, in a daemon thread.
+     *
+     * @throws IllegalStateException If the watcher is already started.
+     */
+    @Override
+    public synchronized void start() {
+        if (this.thread != null) {
+            throw new IllegalStateException("Watcher already started");
+        }
+        this.thread = new Thread(this::run, "resource-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stop watching the changes, pending changes are ignored, the watcher cannot be started again.
+     */
+    @Override
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            current = this.thread;
+        }
+        try {
+            this.service.close();
+        } catch (IOException e) {
+            //Nothing more can be done with the service.
+        }
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return The number of successful reloadings.
+     */
+    public long getReloadCount() {
+        return this.reloadCount.sum();
+    }
+
+    /**
+     * @return The number of failed reloadings.
+     */
+    public long getFailureCount() {
+        return this.failureCount.sum();
+    }
+
+    /**
+     * @return The time between the first change of the last batch and the end of its reloading, in milliseconds.
+     */
+    public long getLastLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(this.lastLatency.get());
+    }
+
+    /**
+     * @return The highest time between the first change of a batch and the end of its reloading, in milliseconds.
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxLatency.get());
+    }
+
+    /**
+     * Wait for changes, and reload the changed resources once no change happened during the debounce delay.
+     */
+    private void run() {
+        Set<Resource> pending = new LinkedHashSet<>();
+        long firstChange = 0;
+        long deadline = 0;
+        try {
+            while (true) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = this.service.take();
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    key = remaining > 0 ? this.service.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                }
+                if (key == null) {
+                    this.reload(pending, firstChange);
+                    pending.clear();
+                    continue;
+                }
+                Path directory = (Path) key.watchable();
+                boolean watched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                        List<Resource> changed = this.resources.get(directory.resolve((Path) event.context()));
+                        if (changed != null) {
+                            if (pending.isEmpty()) {
+                                firstChange = System.nanoTime();
+                            }
+                            pending.addAll(changed);
+                            watched = true;
+                        }
+                    }
+                }
+                key.reset();
+                //Changes on files not watched, in the same directories, must not delay the reloading.
+                if (watched) {
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.debounce);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            //Watcher stopped.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reload a batch of resources, resources not loaded are ignored, they will use the new file when loaded.
+     *
+     * @param batch       Resources to reload.
+     * @param firstChange Time of the first change of the batch, in nanoseconds.
+     */
+    private void reload(final Set<Resource> batch, final long firstChange) {
+        for (Resource resource : batch) {
+            if (!resource.isLoaded()) {
+                continue;
+            }
+            try {
+                resource.reload();
+                this.reloadCount.increment();
+            } catch (RuntimeException e) {
+                this.failureCount.increment();
+            }
+        }
+        long latency = System.nanoTime() - firstChange;
+        this.lastLatency.set(latency);
+        this.maxLatency.accumulateAndGet(latency, Math::max);
+    }
+}
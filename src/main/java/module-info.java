@@ -24,6 +24,9 @@
 
 module be.yildizgames.common.util {
 
+    requires static jdk.jfr;
+    requires static jdk.unsupported;
+
     exports be.yildizgames.common.util;
     exports be.yildizgames.common.util.language;
 }
\ No newline at end of file
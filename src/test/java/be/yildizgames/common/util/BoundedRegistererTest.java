@@ -0,0 +1,131 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class BoundedRegistererTest {
+
+    @Nested
+    public class Lru {
+
+        @Test
+        public void evictLeastRecentlyUsed() {
+            List<BaseRegisterable> evicted = new ArrayList<>();
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.lru(), evicted::add);
+            BaseRegisterable a = new BaseRegisterable("a");
+            BaseRegisterable b = new BaseRegisterable("b");
+            registerer.register(a);
+            registerer.register(b);
+            registerer.get("a");
+            registerer.register(new BaseRegisterable("c"));
+            assertEquals(List.of(b), evicted);
+            assertEquals(2, registerer.size());
+            assertTrue(registerer.find("a").isPresent());
+            assertFalse(registerer.find("b").isPresent());
+            assertEquals(1, registerer.getEvictions());
+        }
+
+        @Test
+        public void statistics() {
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.lru(), e -> {});
+            registerer.register(new BaseRegisterable("a"));
+            registerer.get("a");
+            registerer.find("b");
+            assertEquals(1, registerer.getHits());
+            assertEquals(1, registerer.getMisses());
+            assertEquals(0.5f, registerer.getHitRatio());
+        }
+
+        @Test
+        public void alreadyExists() {
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.lru(), e -> {});
+            registerer.register(new BaseRegisterable("a"));
+            assertThrows(InvalidParameterException.class, () -> registerer.register(new BaseRegisterable("a")));
+        }
+
+        @Test
+        public void notFound() {
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.lru(), e -> {});
+            assertThrows(InvalidParameterException.class, () -> registerer.get("a"));
+            BaseRegisterable fallback = new BaseRegisterable("fallback");
+            BoundedRegisterer<BaseRegisterable> withNoResult = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.lru(), e -> {}, n -> fallback);
+            assertSame(fallback, withNoResult.get("a"));
+        }
+    }
+
+    @Nested
+    public class Frequency {
+
+        @Test
+        public void scanDoesNotEvictFrequentElements() {
+            List<BaseRegisterable> evicted = new ArrayList<>();
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(2, EvictionPolicy.frequency(2), evicted::add);
+            BaseRegisterable a = new BaseRegisterable("a");
+            BaseRegisterable b = new BaseRegisterable("b");
+            registerer.register(a);
+            registerer.register(b);
+            for (int i = 0; i < 5; i++) {
+                registerer.get("a");
+                registerer.get("b");
+            }
+            for (int i = 0; i < 10; i++) {
+                registerer.register(new BaseRegisterable("scan" + i));
+            }
+            assertSame(a, registerer.get("a"));
+            assertSame(b, registerer.get("b"));
+            assertEquals(10, evicted.size());
+            assertEquals(10, registerer.getRejections());
+        }
+
+        @Test
+        public void frequentCandidateAdmitted() {
+            List<BaseRegisterable> evicted = new ArrayList<>();
+            BoundedRegisterer<BaseRegisterable> registerer = BoundedRegisterer.newBoundedRegisterer(1, EvictionPolicy.frequency(1), evicted::add);
+            BaseRegisterable a = new BaseRegisterable("a");
+            registerer.register(a);
+            for (int i = 0; i < 3; i++) {
+                registerer.find("b");
+            }
+            registerer.register(new BaseRegisterable("b"));
+            assertEquals(List.of(a), evicted);
+            assertTrue(registerer.find("b").isPresent());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedValueArrayTest {
+
+    @Nested
+    public class NewArray {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(3);
+            assertEquals(3, a.size());
+            assertEquals(0, a.getValue(2));
+            assertEquals(0, a.getMax(2));
+        }
+
+        @Test
+        public void negativeSize() {
+            assertThrows(AssertionError.class, () -> BoundedValueArray.newArray(-1));
+        }
+    }
+
+    @Nested
+    public class SetValue {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(2);
+            a.setValue(0, 15);
+            assertEquals(0, a.getValue(0));
+            a.setMax(0, 100);
+            a.setValue(0, 15);
+            assertEquals(15, a.getValue(0));
+            a.setValue(0, 150);
+            assertEquals(100, a.getValue(0));
+            a.setValue(0, -150);
+            assertEquals(0, a.getValue(0));
+            assertEquals(0, a.getValue(1));
+        }
+    }
+
+    @Nested
+    public class SetMax {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(1);
+            a.setMax(0, -100);
+            assertEquals(0, a.getMax(0));
+            a.setMax(0, 100);
+            a.setValue(0, 50);
+            a.setMax(0, 10);
+            assertEquals(10, a.getValue(0));
+            a.setValueAndMax(0, 40);
+            assertEquals(40, a.getValue(0));
+            assertEquals(40, a.getMax(0));
+        }
+    }
+
+    @Nested
+    public class Add {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(1);
+            a.setMax(0, 100);
+            a.setValue(0, 15);
+            a.add(0, 10);
+            assertEquals(25, a.getValue(0));
+            a.add(0, 80);
+            assertEquals(100, a.getValue(0));
+            a.add(0, -200);
+            assertEquals(0, a.getValue(0));
+            assertTrue(a.isZero(0));
+        }
+
+        @Test
+        public void deltas() {
+            BoundedValueArray a = BoundedValueArray.newArray(3);
+            for (int i = 0; i < 3; i++) {
+                a.setValueAndMax(i, 50);
+                a.setValue(i, 20);
+            }
+            a.add(new float[]{10, 100, -100});
+            assertEquals(30, a.getValue(0));
+            assertEquals(50, a.getValue(1));
+            assertEquals(0, a.getValue(2));
+        }
+
+        @Test
+        public void deltasWrongSize() {
+            BoundedValueArray a = BoundedValueArray.newArray(3);
+            assertThrows(InvalidParameterException.class, () -> a.add(new float[2]));
+        }
+    }
+
+    @Nested
+    public class AddAll {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(1000);
+            BoundedValue[] expected = new BoundedValue[1000];
+            for (int i = 0; i < 1000; i++) {
+                a.setMax(i, i);
+                a.setValue(i, i / 2f);
+                expected[i] = new BoundedValue();
+                expected[i].setMax(i);
+                expected[i].setValue(i / 2f);
+            }
+            a.addAll(100);
+            a.addAll(-30);
+            for (int i = 0; i < 1000; i++) {
+                expected[i].add(100);
+                expected[i].add(-30);
+                assertEquals(expected[i].getValue(), a.getValue(i));
+                assertEquals(expected[i].toString(), a.toString(i));
+            }
+        }
+    }
+
+    @Nested
+    public class IsMoreThan {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(1);
+            a.setValueAndMax(0, 10);
+            assertTrue(a.isMoreThan(0, 10));
+            assertFalse(a.isMoreThan(0, 11));
+        }
+    }
+
+    @Nested
+    public class ToBoundedValue {
+
+        @Test
+        public void happyFlow() {
+            BoundedValueArray a = BoundedValueArray.newArray(1);
+            a.setMax(0, 100);
+            a.setValue(0, 40);
+            BoundedValue v = a.toBoundedValue(0);
+            assertEquals(40, v.getValue());
+            assertEquals(100, v.getMax());
+            assertEquals(a.getRatio(0), v.getRatio(), 0.0001f);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class FrozenRegistererTest {
+
+    @Nested
+    public class Get {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            for (int i = 0; i < 10000; i++) {
+                registerer.register(new BaseRegisterable("test" + i));
+            }
+            FrozenRegisterer<BaseRegisterable> frozen = registerer.freeze();
+            assertEquals(10000, frozen.size());
+            for (int i = 0; i < 10000; i++) {
+                assertSame(registerer.get("test" + i), frozen.get("test" + i));
+            }
+        }
+
+        @Test
+        public void sameHashCode() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("Aa"));
+            registerer.register(new BaseRegisterable("BB"));
+            FrozenRegisterer<BaseRegisterable> frozen = registerer.freeze();
+            assertEquals("Aa", frozen.get("Aa").getName());
+            assertEquals("BB", frozen.get("BB").getName());
+        }
+
+        @Test
+        public void notFound() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            FrozenRegisterer<BaseRegisterable> frozen = registerer.freeze();
+            assertThrows(InvalidParameterException.class, () -> frozen.get("test2"));
+        }
+
+        @Test
+        public void notFoundWithNoResult() {
+            BaseRegisterable fallback = new BaseRegisterable("fallback");
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(n -> fallback);
+            assertSame(fallback, registerer.freeze().get("test"));
+        }
+    }
+
+    @Nested
+    public class Find {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertSame(r, registerer.freeze().find("test").orElseThrow());
+        }
+
+        @Test
+        public void empty() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            FrozenRegisterer<BaseRegisterable> frozen = registerer.freeze();
+            assertEquals(0, frozen.size());
+            assertFalse(frozen.find("test").isPresent());
+        }
+
+        @Test
+        public void notVisibleAfterFreeze() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            FrozenRegisterer<BaseRegisterable> frozen = registerer.freeze();
+            registerer.register(new BaseRegisterable("test"));
+            assertFalse(frozen.find("test").isPresent());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class MappedRegistererTest {
+
+    private static Path write(Registerer<BaseRegisterable> registerer) throws IOException {
+        Path file = Files.createTempFile("registerer", ".bin");
+        file.toFile().deleteOnExit();
+        MappedRegisterer.write(registerer, file, r -> r.getName().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static BaseRegisterable read(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return new BaseRegisterable(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    public class Find {
+
+        @Test
+        public void happyFlow() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            for (int i = 0; i < 1000; i++) {
+                registerer.register(new BaseRegisterable("tést" + i));
+            }
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(write(registerer), MappedRegistererTest::read);
+            assertEquals(1000, mapped.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("tést" + i, mapped.get("tést" + i).getName());
+            }
+            assertFalse(mapped.find("tést1000").isPresent());
+            assertThrows(InvalidParameterException.class, () -> mapped.get("test"));
+        }
+
+        @Test
+        public void lazy() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            AtomicInteger calls = new AtomicInteger();
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(write(registerer), b -> {
+                calls.incrementAndGet();
+                return read(b);
+            });
+            assertTrue(mapped.contains("test"));
+            assertEquals(0, calls.get());
+            BaseRegisterable r = mapped.get("test");
+            assertSame(r, mapped.get("test"));
+            assertEquals(1, calls.get());
+        }
+
+        @Test
+        public void folding() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.UNICODE);
+            registerer.register(new BaseRegisterable("Épée"));
+            registerer.register(new BaseRegisterable("Test"));
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(write(registerer), MappedRegistererTest::read);
+            assertEquals("Épée", mapped.get("ÉPÉE").getName());
+            assertEquals("Épée", mapped.get("épée").getName());
+            assertEquals("Test", mapped.get("tEST").getName());
+            assertFalse(mapped.contains("epee"));
+        }
+
+        @Test
+        public void noFolding() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("Test"));
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(write(registerer), MappedRegistererTest::read);
+            assertTrue(mapped.contains("Test"));
+            assertFalse(mapped.contains("test"));
+        }
+
+        @Test
+        public void empty() throws IOException {
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(write(Registerer.newRegisterer()), MappedRegistererTest::read);
+            assertEquals(0, mapped.size());
+            assertFalse(mapped.find("test").isPresent());
+        }
+    }
+
+    @Nested
+    public class Open {
+
+        @Test
+        public void corrupted() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            Path file = write(registerer);
+            byte[] content = Files.readAllBytes(file);
+            content[8]++;
+            Files.write(file, content);
+            assertThrows(IOException.class, () -> MappedRegisterer.open(file, MappedRegistererTest::read));
+        }
+
+        @Test
+        public void corruptedIndex() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            Path file = write(registerer);
+            byte[] content = Files.readAllBytes(file);
+            content[content.length - 12]++;
+            Files.write(file, content);
+            assertThrows(IOException.class, () -> MappedRegisterer.open(file, MappedRegistererTest::read));
+        }
+
+        @Test
+        public void corruptedElementDetectedWhenRead() throws IOException {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            registerer.register(new BaseRegisterable("other"));
+            Path file = write(registerer);
+            byte[] content = Files.readAllBytes(file);
+            content[content.length - 1]++;
+            Files.write(file, content);
+            MappedRegisterer<BaseRegisterable> mapped = MappedRegisterer.open(file, MappedRegistererTest::read);
+            String last = registerer.values().get(1).getName();
+            String first = registerer.values().get(0).getName();
+            assertEquals(first, mapped.get(first).getName());
+            assertTrue(mapped.contains(last));
+            assertThrows(UncheckedIOException.class, () -> mapped.find(last));
+        }
+
+        @Test
+        public void notRegistererFile() throws IOException {
+            Path file = Files.createTempFile("registerer", ".bin");
+            file.toFile().deleteOnExit();
+            Files.write(file, new byte[64]);
+            assertThrows(IOException.class, () -> MappedRegisterer.open(file, MappedRegistererTest::read));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class MappedResourceTest {
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("resource", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static String read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Nested
+    public class GetContent {
+
+        @Test
+        public void happyFlow() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello world"));
+            r.load();
+            ByteBuffer content = r.getContent();
+            assertTrue(content.isReadOnly());
+            assertEquals("hello world", read(content));
+            assertEquals("hello world", read(r.getContent()));
+            assertEquals(11, r.getSize());
+        }
+
+        @Test
+        public void region() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello world"), 6, 5);
+            r.load();
+            assertEquals("world", read(r.getContent()));
+            assertEquals("orl", read(r.getContent(1, 3)));
+        }
+
+        @Test
+        public void outOfRange() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"));
+            r.load();
+            assertThrows(IndexOutOfBoundsException.class, () -> r.getContent(3, 3));
+            assertThrows(IndexOutOfBoundsException.class, () -> r.getContent(-1, 1));
+        }
+
+        @Test
+        public void notLoaded() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"));
+            assertThrows(IllegalStateException.class, r::getContent);
+        }
+    }
+
+    @Nested
+    public class Load {
+
+        @Test
+        public void regionOutOfFile() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"), 2, 10);
+            assertThrows(IllegalStateException.class, r::load);
+            assertEquals(Resource.State.FAILED, r.getState());
+        }
+
+        @Test
+        public void fileNotFound() {
+            MappedResource r = MappedResource.newMappedResource("test", Path.of("not-existing-file.bin"));
+            assertThrows(UncheckedIOException.class, r::load);
+        }
+    }
+
+    @Nested
+    public class Read {
+
+        @Test
+        public void happyFlow() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"));
+            assertEquals("hello", r.read(MappedResourceTest::read));
+            assertTrue(r.isLoaded());
+            assertEquals(0, r.getReferenceCount());
+        }
+
+        @Test
+        public void notUnloadedWhileReading() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"));
+            assertFalse(r.read(b -> r.unload()));
+            assertTrue(r.unload());
+            assertTrue(MappedResource.isImmediateReleaseSupported());
+        }
+    }
+
+    @Nested
+    public class Unload {
+
+        @Test
+        public void happyFlow() throws IOException {
+            MappedResource r = MappedResource.newMappedResource("test", write("hello"));
+            r.load();
+            ByteBuffer kept = r.getContent();
+            r.unload();
+            assertEquals("hello", read(kept));
+            assertEquals(0, r.getSize());
+            assertThrows(IllegalStateException.class, r::getContent);
+            r.load();
+            assertEquals("hello", read(r.getContent()));
+        }
+    }
+}
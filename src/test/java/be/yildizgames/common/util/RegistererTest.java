@@ -0,0 +1,791 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class RegistererTest {
+
+    /**
+     * Call getOrCreate from one thread per name, and open the release latch only once every caller is blocked,
+     * either in the loader or waiting for the loading of another caller.
+     */
+    private static BaseRegisterable[] getOrCreateConcurrently(Registerer<BaseRegisterable> registerer, CountDownLatch release, String... names) throws InterruptedException {
+        BaseRegisterable[] results = new BaseRegisterable[names.length];
+        Thread[] threads = new Thread[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> results[index] = registerer.getOrCreate(names[index]));
+            threads[i].start();
+        }
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread t : threads) {
+            while (t.getState() != Thread.State.WAITING) {
+                assertTrue(System.nanoTime() < end, "Caller not blocked before the deadline.");
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        for (Thread t : threads) {
+            t.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(t.isAlive());
+        }
+        return results;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nested
+    public class Get {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertSame(r, registerer.get("test"));
+        }
+
+        @Test
+        public void notFound() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertThrows(InvalidParameterException.class, () -> registerer.get("test"));
+        }
+
+        @Test
+        public void notFoundWithNoResult() {
+            BaseRegisterable fallback = new BaseRegisterable("fallback");
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(n -> fallback);
+            assertSame(fallback, registerer.get("test"));
+        }
+    }
+
+    @Nested
+    public class GetOrCreate {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(BaseRegisterable::new);
+            BaseRegisterable r = registerer.getOrCreate("test");
+            assertEquals("test", r.getName());
+            assertSame(r, registerer.get("test"));
+            assertSame(r, registerer.getOrCreate("test"));
+        }
+
+        @Test
+        public void wrongName() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(n -> new BaseRegisterable("other"));
+            assertThrows(InvalidParameterException.class, () -> registerer.getOrCreate("test"));
+            assertFalse(registerer.find("other").isPresent());
+        }
+
+        @Test
+        public void failureCanBeRetried() {
+            AtomicInteger calls = new AtomicInteger();
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(n -> {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("failure");
+                }
+                return new BaseRegisterable(n);
+            });
+            assertThrows(IllegalStateException.class, () -> registerer.getOrCreate("test"));
+            assertEquals("test", registerer.getOrCreate("test").getName());
+            assertEquals(2, calls.get());
+        }
+
+        @Test
+        public void loadedOnlyOnce() throws Exception {
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer(n -> {
+                calls.incrementAndGet();
+                awaitQuietly(release);
+                return new BaseRegisterable(n);
+            });
+            BaseRegisterable[] results = getOrCreateConcurrently(registerer, release, "test", "test", "test", "test", "test", "test", "test", "test");
+            for (BaseRegisterable r : results) {
+                assertSame(results[0], r);
+            }
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Nested
+    public class Find {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertSame(r, registerer.find("test").orElseThrow());
+        }
+
+        @Test
+        public void notFound() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertFalse(registerer.find("test").isPresent());
+        }
+    }
+
+    @Nested
+    public class Register {
+
+        @Test
+        public void alreadyExists() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            assertThrows(InvalidParameterException.class, () -> registerer.register(new BaseRegisterable("test")));
+        }
+    }
+
+    @Nested
+    public class RegisterAll {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            List<BaseRegisterable> elements = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                elements.add(new BaseRegisterable("test" + i));
+            }
+            registerer.registerAll(elements);
+            for (int i = 0; i < 1000; i++) {
+                assertSame(elements.get(i), registerer.get("test" + i));
+                assertSame(elements.get(i), registerer.get(registerer.getHandle("test" + i)));
+            }
+        }
+
+        @Test
+        public void fromStream() {
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer();
+            registerer.registerAll(Stream.of(new BaseRegisterable("test"), new BaseRegisterable("test2")));
+            assertTrue(registerer.find("test").isPresent());
+            assertTrue(registerer.find("test2").isPresent());
+        }
+
+        @Test
+        public void alreadyExists() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            List<BaseRegisterable> elements = List.of(new BaseRegisterable("test1"), new BaseRegisterable("test"),
+                    new BaseRegisterable("test2"), new BaseRegisterable("test2"));
+            InvalidParameterException e = assertThrows(InvalidParameterException.class, () -> registerer.registerAll(elements));
+            assertTrue(e.getMessage().contains("test,test2"));
+            assertFalse(registerer.find("test1").isPresent());
+            assertFalse(registerer.find("test2").isPresent());
+            assertThrows(InvalidParameterException.class, () -> registerer.getHandle("test1"));
+            BaseRegisterable test1 = new BaseRegisterable("test1");
+            BaseRegisterable test2 = new BaseRegisterable("test2");
+            registerer.registerAll(List.of(test1, test2));
+            assertSame(test1, registerer.get("test1"));
+            assertSame(test2, registerer.get(registerer.getHandle("test2")));
+            assertEquals(3, registerer.values().size());
+        }
+    }
+
+    @Nested
+    public class Remove {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            registerer.remove(r);
+            assertFalse(registerer.find("test").isPresent());
+            registerer.register(r);
+            assertTrue(registerer.find("test").isPresent());
+        }
+    }
+
+    @Nested
+    public class Handle {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            BaseRegisterable r2 = new BaseRegisterable("test2");
+            int handle = registerer.registerAndGetHandle(r);
+            int handle2 = registerer.registerAndGetHandle(r2);
+            assertNotEquals(handle, handle2);
+            assertSame(r, registerer.get(handle));
+            assertSame(r2, registerer.get(handle2));
+            assertEquals(handle, registerer.getHandle("test"));
+        }
+
+        @Test
+        public void manyElements() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, registerer.registerAndGetHandle(new BaseRegisterable("test" + i)));
+            }
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("test" + i, registerer.get(i).getName());
+                assertEquals(i, registerer.getHandle("test" + i));
+            }
+        }
+
+        @Test
+        public void removed() {
+            BaseRegisterable fallback = new BaseRegisterable("fallback");
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(n -> fallback);
+            BaseRegisterable r = new BaseRegisterable("test");
+            int handle = registerer.registerAndGetHandle(r);
+            registerer.remove(r);
+            assertFalse(registerer.find(handle).isPresent());
+            assertThrows(InvalidParameterException.class, () -> registerer.get(handle));
+            assertThrows(InvalidParameterException.class, () -> registerer.getHandle("test"));
+        }
+
+        @Test
+        public void recycledForAnotherName() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            int handle = registerer.registerAndGetHandle(r);
+            registerer.remove(r);
+            BaseRegisterable r2 = new BaseRegisterable("test2");
+            int handle2 = registerer.registerAndGetHandle(r2);
+            assertNotEquals(handle, handle2);
+            assertEquals(NameTable.index(handle), NameTable.index(handle2));
+            assertFalse(registerer.find(handle).isPresent());
+            assertSame(r2, registerer.get(handle2));
+        }
+
+        @Test
+        public void staleUntilGenerationWraps() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            int handle = registerer.registerAndGetHandle(r);
+            registerer.remove(r);
+            for (int i = 1; i < 2048; i++) {
+                BaseRegisterable other = new BaseRegisterable("test" + i);
+                assertNotEquals(handle, registerer.registerAndGetHandle(other));
+                assertFalse(registerer.find(handle).isPresent());
+                registerer.remove(other);
+            }
+            BaseRegisterable wrapped = new BaseRegisterable("wrapped");
+            assertEquals(handle, registerer.registerAndGetHandle(wrapped));
+            assertSame(wrapped, registerer.get(handle));
+        }
+
+        @Test
+        public void churnDoesNotGrow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable kept = new BaseRegisterable("kept");
+            int keptHandle = registerer.registerAndGetHandle(kept);
+            int previous = -1;
+            for (int i = 0; i < 200_000; i++) {
+                BaseRegisterable r = new BaseRegisterable("test" + i);
+                int handle = registerer.registerAndGetHandle(r);
+                assertTrue(NameTable.index(handle) < 16);
+                assertFalse(registerer.find(previous).isPresent());
+                registerer.remove(r);
+                assertFalse(registerer.find("test" + i).isPresent());
+                previous = handle;
+            }
+            assertSame(kept, registerer.get(keptHandle));
+            assertSame(kept, registerer.get("kept"));
+        }
+
+        @Test
+        public void unknown() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertThrows(InvalidParameterException.class, () -> registerer.get(0));
+            assertThrows(InvalidParameterException.class, () -> registerer.get(-1));
+            assertThrows(InvalidParameterException.class, () -> registerer.getHandle("test"));
+            assertFalse(registerer.find(5).isPresent());
+        }
+    }
+
+    @Nested
+    public class FromCharacters {
+
+        @Test
+        public void charSequence() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertSame(r, registerer.get(new StringBuilder("test")));
+            assertSame(r, registerer.find(new StringBuilder("test")).orElseThrow());
+            assertFalse(registerer.find(new StringBuilder("tes")).isPresent());
+        }
+
+        @Test
+        public void charArray() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            char[] chars = "xxtestxx".toCharArray();
+            assertSame(r, registerer.get(chars, 2, 4));
+            assertFalse(registerer.find(chars, 2, 5).isPresent());
+            assertThrows(InvalidParameterException.class, () -> registerer.get(chars, 0, 4));
+        }
+
+        @Test
+        public void utf8Array() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("tést\uD83D\uDE00");
+            registerer.register(r);
+            byte[] name = r.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[name.length + 2];
+            System.arraycopy(name, 0, bytes, 1, name.length);
+            assertSame(r, registerer.getUtf8(bytes, 1, name.length));
+            assertFalse(registerer.findUtf8(bytes, 1, name.length - 1).isPresent());
+            assertFalse(registerer.findUtf8(bytes, 0, name.length).isPresent());
+        }
+
+        @Test
+        public void utf8Buffer() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            BaseRegisterable r = new BaseRegisterable("tést");
+            registerer.register(r);
+            byte[] name = r.getName().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(name.length + 3);
+            buffer.position(3);
+            buffer.put(name);
+            buffer.flip();
+            assertSame(r, registerer.getUtf8(buffer, 3, name.length));
+            assertSame(r, registerer.findUtf8(buffer, 3, name.length).orElseThrow());
+            assertEquals(0, buffer.position());
+            assertEquals(name.length + 3, buffer.limit());
+        }
+
+        @Test
+        public void notFoundUseName() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(BaseRegisterable::new);
+            byte[] name = "tést".getBytes(StandardCharsets.UTF_8);
+            assertEquals("tést", registerer.getUtf8(name, 0, name.length).getName());
+            assertEquals("tést", registerer.getUtf8(ByteBuffer.wrap(name), 0, name.length).getName());
+            assertEquals("es", registerer.get("test".toCharArray(), 1, 2).getName());
+        }
+
+        @Test
+        public void invalidUtf8() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("test"));
+            byte[] bytes = {(byte) 0xC3, 't'};
+            assertFalse(registerer.findUtf8(bytes, 0, 2).isPresent());
+            assertFalse(registerer.findUtf8(bytes, 0, 1).isPresent());
+        }
+
+        @Test
+        public void overlongUtf8() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("A/"));
+            registerer.register(new BaseRegisterable("\u00e9"));
+            assertFalse(registerer.findUtf8(new byte[]{(byte) 0xC1, (byte) 0x81, (byte) 0xC0, (byte) 0xAF}, 0, 4).isPresent());
+            assertFalse(registerer.findUtf8(new byte[]{(byte) 0xE0, (byte) 0x83, (byte) 0xA9}, 0, 3).isPresent());
+            assertTrue(registerer.findUtf8(new byte[]{'A', '/'}, 0, 2).isPresent());
+        }
+
+        @Test
+        public void surrogateUtf8() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("\uD800\uDC00"));
+            byte[] encodedSurrogates = {(byte) 0xED, (byte) 0xA0, (byte) 0x80, (byte) 0xED, (byte) 0xB0, (byte) 0x80};
+            assertFalse(registerer.findUtf8(encodedSurrogates, 0, 6).isPresent());
+            assertTrue(registerer.findUtf8(new byte[]{(byte) 0xF0, (byte) 0x90, (byte) 0x80, (byte) 0x80}, 0, 4).isPresent());
+        }
+
+        @Test
+        public void aboveMaxCodePointUtf8() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("\uDBFF\uDFFF"));
+            assertFalse(registerer.findUtf8(new byte[]{(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80}, 0, 4).isPresent());
+            assertTrue(registerer.findUtf8(new byte[]{(byte) 0xF4, (byte) 0x8F, (byte) 0xBF, (byte) 0xBF}, 0, 4).isPresent());
+        }
+    }
+
+    @Nested
+    public class Changes {
+
+        @Test
+        public void version() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertEquals(0, registerer.getVersion());
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertEquals(1, registerer.getVersion());
+            assertThrows(InvalidParameterException.class, () -> registerer.register(r));
+            assertEquals(1, registerer.getVersion());
+            registerer.remove(r);
+            assertEquals(2, registerer.getVersion());
+            registerer.remove(r);
+            assertEquals(2, registerer.getVersion());
+        }
+
+        @Test
+        public void listener() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            List<String> events = new ArrayList<>();
+            RegistererListener<BaseRegisterable> listener = new RegistererListener<>() {
+                @Override
+                public void registered(BaseRegisterable element, long version) {
+                    events.add("+" + element.getName() + version);
+                }
+
+                @Override
+                public void removed(BaseRegisterable element, long version) {
+                    events.add("-" + element.getName() + version);
+                }
+            };
+            registerer.addListener(listener);
+            BaseRegisterable r = new BaseRegisterable("a");
+            registerer.register(r);
+            registerer.registerAll(List.of(new BaseRegisterable("b"), new BaseRegisterable("c")));
+            registerer.remove(r);
+            registerer.removeListener(listener);
+            registerer.register(r);
+            assertEquals(List.of("+a1", "+b2", "+c3", "-a4"), events);
+        }
+
+        @Test
+        public void failingListener() {
+            List<Throwable> errors = new ArrayList<>();
+            Thread thread = Thread.currentThread();
+            Thread.UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+            thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+            try {
+                Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+                List<String> events = new ArrayList<>();
+                registerer.addListener(new RegistererListener<>() {
+                    @Override
+                    public void registered(BaseRegisterable element, long version) {
+                        if ("c".equals(element.getName())) {
+                            throw new IllegalStateException("listener");
+                        }
+                    }
+
+                    @Override
+                    public void removed(BaseRegisterable element, long version) {
+                        throw new IllegalStateException("listener");
+                    }
+                });
+                registerer.addListener(new RegistererListener<>() {
+                    @Override
+                    public void registered(BaseRegisterable element, long version) {
+                        events.add("+" + element.getName() + version);
+                    }
+
+                    @Override
+                    public void removed(BaseRegisterable element, long version) {
+                        events.add("-" + element.getName() + version);
+                    }
+                });
+                BaseRegisterable c = new BaseRegisterable("c");
+                registerer.registerAll(List.of(new BaseRegisterable("a"), new BaseRegisterable("b"), c, new BaseRegisterable("d")));
+                assertEquals(List.of("+a1", "+b2", "+c3", "+d4"), events);
+                assertSame(c, registerer.find("c").orElseThrow());
+                assertSame(c, registerer.find((CharSequence) "c").orElseThrow());
+                assertEquals(4, registerer.getVersion());
+                assertThrows(InvalidParameterException.class, () -> registerer.register(new BaseRegisterable("c")));
+                registerer.remove(c);
+                assertFalse(registerer.find("c").isPresent());
+                assertEquals(2, errors.size());
+            } finally {
+                thread.setUncaughtExceptionHandler(previous);
+            }
+        }
+
+        @Test
+        public void changesSince() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("a"));
+            registerer.enableChangeLog(3);
+            BaseRegisterable b = new BaseRegisterable("b");
+            registerer.register(b);
+            registerer.remove(b);
+            List<RegistererChange<BaseRegisterable>> changes = registerer.changesSince(1);
+            assertEquals(2, changes.size());
+            assertEquals(RegistererChange.Type.REGISTERED, changes.get(0).getType());
+            assertEquals(2, changes.get(0).getVersion());
+            assertSame(b, changes.get(0).getElement());
+            assertEquals(RegistererChange.Type.REMOVED, changes.get(1).getType());
+            assertEquals(3, changes.get(1).getVersion());
+            assertTrue(registerer.changesSince(3).isEmpty());
+            assertThrows(InvalidParameterException.class, () -> registerer.changesSince(0));
+            assertThrows(InvalidParameterException.class, () -> registerer.changesSince(4));
+        }
+
+        @Test
+        public void changesSinceTooOld() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.enableChangeLog(2);
+            for (int i = 0; i < 5; i++) {
+                registerer.register(new BaseRegisterable("test" + i));
+            }
+            assertEquals(2, registerer.changesSince(3).size());
+            assertThrows(InvalidParameterException.class, () -> registerer.changesSince(2));
+        }
+
+        @Test
+        public void changeLogNotEnabled() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertThrows(IllegalStateException.class, () -> registerer.changesSince(0));
+        }
+    }
+
+    @Nested
+    public class Prefix {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            registerer.register(new BaseRegisterable("bc"));
+            registerer.register(new BaseRegisterable("abd"));
+            registerer.enablePrefixIndex();
+            registerer.register(new BaseRegisterable("abc"));
+            registerer.register(new BaseRegisterable("ab"));
+            registerer.register(new BaseRegisterable("a"));
+            BaseRegisterable removed = new BaseRegisterable("abe");
+            registerer.register(removed);
+            registerer.remove(removed);
+            assertEquals(List.of("ab", "abc", "abd"), names(registerer.findByPrefix("ab", 10)));
+            assertEquals(List.of("ab", "abc"), names(registerer.findByPrefix("ab", 2)));
+            assertEquals(List.of(), names(registerer.findByPrefix("c", 10)));
+            assertEquals(List.of("a", "ab", "abc", "abd", "bc"), names(registerer.sortedByName()));
+        }
+
+        @Test
+        public void notEnabled() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertThrows(IllegalStateException.class, () -> registerer.findByPrefix("a", 1));
+            assertThrows(IllegalStateException.class, registerer::sortedByName);
+        }
+
+        private List<String> names(Stream<BaseRegisterable> stream) {
+            return stream.map(BaseRegisterable::getName).collect(Collectors.toList());
+        }
+    }
+
+    @Nested
+    public class Metrics {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(BaseRegisterable::new);
+            registerer.enableMetrics();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            registerer.get("test");
+            registerer.get(new StringBuilder("test"));
+            registerer.find("other");
+            registerer.get("other");
+            registerer.remove(r);
+            RegistererStatistics statistics = registerer.getStatistics();
+            assertEquals(4, statistics.getLookups());
+            assertEquals(2, statistics.getHits());
+            assertEquals(2, statistics.getMisses());
+            assertEquals(1, statistics.getNoResults());
+            assertEquals(1, statistics.getRegistrations());
+            assertEquals(1, statistics.getRemovals());
+            assertEquals(0.5f, statistics.getHitRatio());
+        }
+
+        @Test
+        public void notEnabled() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer();
+            assertThrows(IllegalStateException.class, registerer::getStatistics);
+        }
+    }
+
+    @Nested
+    public class Folding {
+
+        @Test
+        public void ascii() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.ASCII);
+            BaseRegisterable r = new BaseRegisterable("Test");
+            registerer.register(r);
+            assertSame(r, registerer.get("TEST"));
+            assertSame(r, registerer.find("test").orElseThrow());
+            assertSame(r, registerer.get(new StringBuilder("tEsT")));
+            assertSame(r, registerer.get("xtestx".toCharArray(), 1, 4));
+            byte[] bytes = "TEST".getBytes(StandardCharsets.UTF_8);
+            assertSame(r, registerer.getUtf8(bytes, 0, bytes.length));
+            assertThrows(InvalidParameterException.class, () -> registerer.register(new BaseRegisterable("tesT")));
+            assertFalse(registerer.find("tést").isPresent());
+        }
+
+        @Test
+        public void unicode() {
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer(NameFolding.UNICODE);
+            BaseRegisterable r = new BaseRegisterable("Épée");
+            registerer.register(r);
+            assertSame(r, registerer.get("ÉPÉE"));
+            assertSame(r, registerer.get("épée"));
+            byte[] bytes = "éPÉe".getBytes(StandardCharsets.UTF_8);
+            assertSame(r, registerer.findUtf8(ByteBuffer.wrap(bytes), 0, bytes.length).orElseThrow());
+            assertFalse(registerer.find("epee").isPresent());
+        }
+
+        @Test
+        public void remove() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.ASCII);
+            BaseRegisterable r = new BaseRegisterable("Test");
+            int handle = registerer.registerAndGetHandle(r);
+            registerer.remove(new BaseRegisterable("TEST"));
+            assertFalse(registerer.find("Test").isPresent());
+            assertFalse(registerer.find(handle).isPresent());
+            BaseRegisterable r2 = new BaseRegisterable("TEST");
+            assertSame(r2, registerer.get(registerer.registerAndGetHandle(r2)));
+            assertSame(r2, registerer.get("test"));
+        }
+
+        @Test
+        public void registerAllDuplicates() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.ASCII);
+            registerer.register(new BaseRegisterable("a"));
+            assertThrows(InvalidParameterException.class, () -> registerer.registerAll(List.of(new BaseRegisterable("A"))));
+            assertThrows(InvalidParameterException.class, () -> registerer.registerAll(List.of(new BaseRegisterable("b"), new BaseRegisterable("B"))));
+            assertFalse(registerer.find("b").isPresent());
+        }
+
+        @Test
+        public void getOrCreate() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(BaseRegisterable::new, NameFolding.ASCII);
+            BaseRegisterable r = registerer.getOrCreate("Test");
+            assertSame(r, registerer.getOrCreate("TEST"));
+        }
+
+        @Test
+        public void getOrCreateLoadedOnlyOnce() throws Exception {
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer(n -> {
+                calls.incrementAndGet();
+                awaitQuietly(release);
+                return new BaseRegisterable(n);
+            }, NameFolding.ASCII);
+            BaseRegisterable[] results = getOrCreateConcurrently(registerer, release, "Foo", "foo");
+            assertSame(results[0], results[1]);
+            assertEquals(1, calls.get());
+        }
+
+        @Test
+        public void prefixIndex() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.ASCII);
+            BaseRegisterable apple = new BaseRegisterable("Apple");
+            BaseRegisterable apricot = new BaseRegisterable("apricot");
+            BaseRegisterable banana = new BaseRegisterable("Banana");
+            registerer.register(banana);
+            registerer.register(apricot);
+            registerer.enablePrefixIndex();
+            registerer.register(apple);
+            assertEquals(List.of(apple, apricot), registerer.findByPrefix("AP", 10).collect(Collectors.toList()));
+            assertEquals(List.of(apricot), registerer.findByPrefix("apr", 10).collect(Collectors.toList()));
+            assertEquals(List.of(apple, apricot, banana), registerer.sortedByName().collect(Collectors.toList()));
+            registerer.remove(new BaseRegisterable("APPLE"));
+            assertEquals(List.of(apricot), registerer.findByPrefix("a", 10).collect(Collectors.toList()));
+        }
+
+        @Test
+        public void frozen() {
+            Registerer<BaseRegisterable> registerer = Registerer.newRegisterer(NameFolding.ASCII);
+            BaseRegisterable r = new BaseRegisterable("Test");
+            registerer.register(r);
+            assertSame(r, registerer.freeze().get("TEST"));
+        }
+    }
+
+    @Nested
+    public class Concurrent {
+
+        @Test
+        public void happyFlow() {
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer();
+            BaseRegisterable r = new BaseRegisterable("test");
+            registerer.register(r);
+            assertSame(r, registerer.get("test"));
+            assertThrows(InvalidParameterException.class, () -> registerer.register(new BaseRegisterable("test")));
+            registerer.remove(r);
+            assertThrows(InvalidParameterException.class, () -> registerer.get("test"));
+        }
+
+        @Test
+        public void registerSameNameFromSeveralThreads() throws Exception {
+            Registerer<BaseRegisterable> registerer = Registerer.newConcurrentRegisterer();
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger success = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        try {
+                            registerer.register(new BaseRegisterable("test" + j));
+                            success.incrementAndGet();
+                        } catch (InvalidParameterException e) {
+                            //expected, only one thread can register a given name.
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(1000, success.get());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceGraphTest {
+
+    @Nested
+    public class AddDependency {
+
+        @Test
+        public void happyFlow() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource level = new TestResource("level", null);
+            TestResource material = new TestResource("material", null);
+            graph.addDependency(level, material);
+            graph.addDependency(level, material);
+            assertEquals(List.of(material), graph.getDependencies(level));
+            assertEquals(List.of(), graph.getDependencies(material));
+        }
+
+        @Test
+        public void cycle() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource a = new TestResource("a", null);
+            TestResource b = new TestResource("b", null);
+            TestResource c = new TestResource("c", null);
+            graph.addDependency(a, b);
+            graph.addDependency(b, c);
+            assertThrows(InvalidParameterException.class, () -> graph.addDependency(c, a));
+            assertThrows(InvalidParameterException.class, () -> graph.addDependency(a, a));
+        }
+
+        @Test
+        public void sameName() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            graph.add(new TestResource("a", null));
+            assertThrows(InvalidParameterException.class, () -> graph.add(new TestResource("a", null)));
+        }
+    }
+
+    @Nested
+    public class GetLoadingOrder {
+
+        @Test
+        public void happyFlow() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource level = new TestResource("level", null);
+            TestResource material = new TestResource("material", null);
+            TestResource texture = new TestResource("texture", null);
+            graph.add(level);
+            graph.addDependency(level, material);
+            graph.addDependency(material, texture);
+            graph.addDependency(level, texture);
+            assertEquals(List.of(texture, material, level), graph.getLoadingOrder());
+        }
+    }
+
+    @Nested
+    public class LoadAll {
+
+        @Test
+        public void happyFlow() {
+            List<String> loaded = new CopyOnWriteArrayList<>();
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource level = new TestResource("level", loaded);
+            TestResource material = new TestResource("material", loaded);
+            TestResource texture1 = new TestResource("texture1", loaded);
+            TestResource texture2 = new TestResource("texture2", loaded);
+            graph.addDependency(level, material);
+            graph.addDependency(material, texture1);
+            graph.addDependency(material, texture2);
+            graph.loadAll().join();
+            assertEquals(4, loaded.size());
+            assertEquals("material", loaded.get(2));
+            assertEquals("level", loaded.get(3));
+        }
+
+        @Test
+        public void parallel() {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            ResourceGraph graph = ResourceGraph.newGraph();
+            graph.add(new BarrierResource("a", barrier));
+            graph.add(new BarrierResource("b", barrier));
+            graph.loadAll(executor).join();
+            executor.shutdown();
+        }
+
+        @Test
+        public void dependencyFailed() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource material = new TestResource("material", null);
+            TestResource texture = new TestResource("texture", null);
+            texture.fail = true;
+            graph.addDependency(material, texture);
+            assertThrows(CompletionException.class, () -> graph.loadAll().join());
+            assertFalse(material.isLoaded());
+        }
+
+        @Test
+        public void dependencyAddedWhileLoading() {
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource material = new TestResource("material", null);
+            TestResource texture = new TestResource("texture", null);
+            TestResource added = new TestResource("added", null);
+            graph.addDependency(material, texture);
+            graph.loadAll(task -> {
+                graph.addDependency(material, added);
+                task.run();
+            }).join();
+            assertTrue(material.isLoaded());
+            assertTrue(texture.isLoaded());
+            assertFalse(added.isLoaded());
+        }
+    }
+
+    @Nested
+    public class Load {
+
+        @Test
+        public void happyFlow() {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource level = new TestResource("level", null);
+            TestResource material = new TestResource("material", null);
+            TestResource other = new TestResource("other", null);
+            graph.addDependency(level, material);
+            graph.add(other);
+            graph.load(level, executor).join();
+            assertTrue(level.isLoaded());
+            assertTrue(material.isLoaded());
+            assertFalse(other.isLoaded());
+            executor.shutdown();
+        }
+
+        @Test
+        public void notInGraph() {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            ResourceGraph graph = ResourceGraph.newGraph();
+            TestResource level = new TestResource("level", null);
+            graph.add(level);
+            TestResource unknown = new TestResource("unknown", null);
+            assertThrows(InvalidParameterException.class, () -> graph.load(unknown, executor));
+            assertThrows(InvalidParameterException.class, () -> graph.load(new TestResource("level", null), executor));
+            assertFalse(unknown.isLoaded());
+            assertEquals(1, graph.getLoadingOrder().size());
+            executor.shutdown();
+        }
+    }
+
+    private static final class TestResource extends Resource {
+
+        private final List<String> loaded;
+
+        private boolean fail;
+
+        private TestResource(String name, List<String> loaded) {
+            super(name);
+            this.loaded = loaded;
+        }
+
+        @Override
+        protected void loadImpl() {
+            if (this.fail) {
+                throw new IllegalStateException("failure");
+            }
+            if (this.loaded != null) {
+                this.loaded.add(this.getName());
+            }
+        }
+    }
+
+    private static final class BarrierResource extends Resource {
+
+        private final CyclicBarrier barrier;
+
+        private BarrierResource(String name, CyclicBarrier barrier) {
+            super(name);
+            this.barrier = barrier;
+        }
+
+        @Override
+        protected void loadImpl() {
+            try {
+                this.barrier.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceLoadMonitorTest {
+
+    @Nested
+    public class GetHistogram {
+
+        @Test
+        public void happyFlow() {
+            ResourceLoadMonitor.reset();
+            ResourceLoadMonitor.enable();
+            try {
+                new MonitoredResource("a", false).load();
+                new MonitoredResource("b", false).load();
+                MonitoredResource failing = new MonitoredResource("c", true);
+                assertThrows(IllegalStateException.class, failing::load);
+            } finally {
+                ResourceLoadMonitor.disable();
+            }
+            ResourceLoadHistogram histogram = ResourceLoadMonitor.getHistogram(MonitoredResource.class).orElseThrow();
+            assertEquals(MonitoredResource.class.getName(), histogram.getType());
+            assertEquals(3, histogram.getCount());
+            assertEquals(1, histogram.getFailureCount());
+            assertEquals(20, histogram.getTotalBytes());
+            assertTrue(histogram.getMaxTime() >= histogram.getMeanTime());
+            assertTrue(histogram.getPercentile(100) >= histogram.getMaxTime());
+            assertTrue(ResourceLoadMonitor.getHistograms().containsKey(MonitoredResource.class.getName()));
+        }
+
+        @Test
+        public void disabled() {
+            ResourceLoadMonitor.reset();
+            assertFalse(ResourceLoadMonitor.isEnabled());
+            new MonitoredResource("a", false).load();
+            assertFalse(ResourceLoadMonitor.getHistogram(MonitoredResource.class).isPresent());
+        }
+    }
+
+    @Nested
+    public class Percentile {
+
+        @Test
+        public void happyFlow() {
+            ResourceLoadHistogram histogram = new ResourceLoadHistogram("test");
+            for (int i = 0; i < 99; i++) {
+                histogram.record(100, 0, true);
+            }
+            histogram.record(5000, 0, true);
+            assertEquals(127, histogram.getPercentile(50));
+            assertEquals(127, histogram.getPercentile(99));
+            assertEquals(8191, histogram.getPercentile(100));
+            assertEquals(5000, histogram.getMaxTime());
+        }
+
+        @Test
+        public void empty() {
+            assertEquals(0, new ResourceLoadHistogram("test").getPercentile(50));
+        }
+    }
+
+    @Nested
+    public class FlightRecorder {
+
+        @Test
+        public void happyFlow() throws IOException {
+            Path file = Files.createTempFile("resources", ".jfr");
+            file.toFile().deleteOnExit();
+            try (Recording recording = new Recording()) {
+                recording.enable(ResourceLoadEvent.NAME);
+                recording.start();
+                new MonitoredResource("recorded", false).load();
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(ResourceLoadEvent.NAME))
+                    .collect(Collectors.toList());
+            assertEquals(1, events.size());
+            assertEquals("recorded", events.get(0).getString("resourceName"));
+            assertEquals(10, events.get(0).getLong("size"));
+            assertTrue(events.get(0).getBoolean("success"));
+        }
+    }
+
+    private static final class MonitoredResource extends Resource {
+
+        private final boolean fail;
+
+        private MonitoredResource(String name, boolean fail) {
+            super(name);
+            this.fail = fail;
+        }
+
+        @Override
+        protected void loadImpl() {
+            if (this.fail) {
+                throw new IllegalStateException("failure");
+            }
+        }
+
+        @Override
+        public long getSize() {
+            return 10;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceLoadQueueTest {
+
+    @Nested
+    public class Submit {
+
+        @Test
+        public void happyFlow() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            ResourceLoadRequest first = queue.submit(new TestResource("first", loaded, false), 0);
+            queue.submit(new TestResource("low", loaded, false), 1);
+            queue.submit(new TestResource("high", loaded, false), 5);
+            queue.submit(new TestResource("low2", loaded, false), 1);
+            executor.runAll();
+            assertEquals(List.of("first", "high", "low", "low2"), loaded);
+            assertSame(first.getResource(), first.getFuture().join());
+        }
+
+        @Test
+        public void maxRunning() {
+            ManualExecutor executor = new ManualExecutor();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 2);
+            for (int i = 0; i < 5; i++) {
+                queue.submit(new TestResource("r" + i, new ArrayList<>(), false), 0);
+            }
+            assertEquals(2, executor.tasks.size());
+            assertEquals(2, queue.getProgress().getRunning());
+            assertEquals(3, queue.getProgress().getQueued());
+            executor.runOne();
+            assertEquals(2, executor.tasks.size());
+            executor.runAll();
+            assertEquals(5, queue.getProgress().getDone());
+        }
+
+        @Test
+        public void failed() {
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(Runnable::run, 1);
+            ResourceLoadRequest request = queue.submit(new TestResource("fail", new ArrayList<>(), true), 0);
+            assertTrue(request.getFuture().isCompletedExceptionally());
+            assertEquals(1, queue.getProgress().getFailed());
+            assertEquals(0, queue.getProgress().getRunning());
+        }
+
+        @Test
+        public void error() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            ResourceLoadRequest request = queue.submit(new Resource("error") {
+                @Override
+                protected void loadImpl() {
+                    throw new AssertionError("error");
+                }
+            }, 0);
+            ResourceLoadRequest next = queue.submit(new TestResource("next", loaded, false), 0);
+            assertThrows(AssertionError.class, executor::runOne);
+            assertTrue(request.getFuture().isCompletedExceptionally());
+            assertEquals(1, queue.getProgress().getFailed());
+            executor.runAll();
+            assertEquals(List.of("next"), loaded);
+            assertTrue(next.getFuture().isDone());
+        }
+
+        @Test
+        public void extremePriorities() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            queue.submit(new TestResource("first", loaded, false), 0);
+            queue.submit(new TestResource("min", loaded, false), Integer.MIN_VALUE);
+            queue.submit(new TestResource("zero", loaded, false), 0);
+            queue.submit(new TestResource("max", loaded, false), Integer.MAX_VALUE);
+            executor.runAll();
+            assertEquals(List.of("first", "max", "zero", "min"), loaded);
+        }
+
+        @Test
+        public void invalidMaxRunning() {
+            assertThrows(AssertionError.class, () -> ResourceLoadQueue.newQueue(Runnable::run, 0));
+        }
+    }
+
+    @Nested
+    public class SetPriority {
+
+        @Test
+        public void happyFlow() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            queue.submit(new TestResource("first", loaded, false), 0);
+            queue.submit(new TestResource("a", loaded, false), 5);
+            ResourceLoadRequest b = queue.submit(new TestResource("b", loaded, false), 1);
+            b.setPriority(10);
+            assertEquals(10, b.getPriority());
+            executor.runAll();
+            assertEquals(List.of("first", "b", "a"), loaded);
+        }
+    }
+
+    @Nested
+    public class Cancel {
+
+        @Test
+        public void happyFlow() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            ResourceLoadRequest first = queue.submit(new TestResource("first", loaded, false), 0);
+            ResourceLoadRequest second = queue.submit(new TestResource("second", loaded, false), 0, 100);
+            assertTrue(second.cancel());
+            assertTrue(second.isCancelled());
+            assertFalse(first.cancel());
+            executor.runAll();
+            assertEquals(List.of("first"), loaded);
+            assertEquals(1, queue.getProgress().getCancelled());
+            assertEquals(0, queue.getProgress().getQueuedBytes());
+        }
+
+        @Test
+        public void fromFuture() {
+            ManualExecutor executor = new ManualExecutor();
+            List<String> loaded = new ArrayList<>();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            queue.submit(new TestResource("first", loaded, false), 0);
+            ResourceLoadRequest second = queue.submit(new TestResource("second", loaded, false), 0);
+            second.getFuture().cancel(false);
+            executor.runAll();
+            assertEquals(List.of("first"), loaded);
+            assertEquals(0, queue.getProgress().getQueued());
+        }
+    }
+
+    @Nested
+    public class GetProgress {
+
+        @Test
+        public void happyFlow() {
+            ManualExecutor executor = new ManualExecutor();
+            ResourceLoadQueue queue = ResourceLoadQueue.newQueue(executor, 1);
+            queue.submit(new TestResource("a", new ArrayList<>(), false), 0, 100);
+            queue.submit(new TestResource("b", new ArrayList<>(), false), 0, 300);
+            ResourceLoadProgress progress = queue.getProgress();
+            assertEquals(100, progress.getRunningBytes());
+            assertEquals(300, progress.getQueuedBytes());
+            assertEquals(0, progress.getByteRatio(), 0.001f);
+            executor.runOne();
+            progress = queue.getProgress();
+            assertEquals(100, progress.getDoneBytes());
+            assertEquals(300, progress.getRunningBytes());
+            assertEquals(0.25f, progress.getByteRatio(), 0.001f);
+            executor.runAll();
+            assertEquals(1, queue.getProgress().getByteRatio(), 0.001f);
+        }
+    }
+
+    private static final class ManualExecutor implements Executor {
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            this.tasks.add(command);
+        }
+
+        private void runOne() {
+            this.tasks.poll().run();
+        }
+
+        private void runAll() {
+            while (!this.tasks.isEmpty()) {
+                this.runOne();
+            }
+        }
+    }
+
+    private static final class TestResource extends Resource {
+
+        private final List<String> loaded;
+
+        private final boolean fail;
+
+        private TestResource(String name, List<String> loaded, boolean fail) {
+            super(name);
+            this.loaded = loaded;
+            this.fail = fail;
+        }
+
+        @Override
+        protected void loadImpl() {
+            if (this.fail) {
+                throw new IllegalStateException("failure");
+            }
+            this.loaded.add(this.getName());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceLoaderTest {
+
+    @Nested
+    public class NewLoader {
+
+        @Test
+        public void happyFlow() {
+            try (ResourceLoader loader = ResourceLoader.newLoader(4)) {
+                assertEquals(Runtime.version().feature() >= 21, loader.isVirtual());
+            }
+        }
+
+        @Test
+        public void platform() {
+            try (ResourceLoader loader = ResourceLoader.newPlatformLoader(4, 2)) {
+                assertFalse(loader.isVirtual());
+            }
+        }
+
+        @Test
+        public void zeroLimit() {
+            assertThrows(AssertionError.class, () -> ResourceLoader.newLoader(0));
+        }
+    }
+
+    @Nested
+    public class Load {
+
+        @Test
+        public void happyFlow() {
+            try (ResourceLoader loader = ResourceLoader.newLoader(4)) {
+                SlowResource r = new SlowResource("a", new AtomicInteger(), new AtomicInteger());
+                assertSame(r, loader.load(r, "disk").join());
+                assertTrue(r.isLoaded());
+            }
+        }
+
+        @Test
+        public void deviceLimit() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maximum = new AtomicInteger();
+            try (ResourceLoader loader = ResourceLoader.newLoader(8, 16)) {
+                loader.setDeviceLimit("disk", 2);
+                List<CompletableFuture<Resource>> loadings = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    loadings.add(loader.load(new SlowResource("r" + i, running, maximum), "disk"));
+                }
+                loadings.forEach(CompletableFuture::join);
+            }
+            assertTrue(maximum.get() <= 2);
+        }
+
+        @Test
+        public void saturatedDeviceDoesNotBlockOthers() {
+            CountDownLatch release = new CountDownLatch(1);
+            try (ResourceLoader loader = ResourceLoader.newPlatformLoader(1, 2)) {
+                Executor slow = loader.forDevice("slow");
+                for (int i = 0; i < 4; i++) {
+                    slow.execute(() -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+                SlowResource r = new SlowResource("a", new AtomicInteger(), new AtomicInteger());
+                assertSame(r, loader.load(r, "fast").orTimeout(5, TimeUnit.SECONDS).join());
+                release.countDown();
+            }
+        }
+
+        @Test
+        public void limitAfterUse() {
+            try (ResourceLoader loader = ResourceLoader.newLoader(4)) {
+                loader.forDevice("disk");
+                assertThrows(IllegalStateException.class, () -> loader.setDeviceLimit("disk", 2));
+            }
+        }
+    }
+
+    private static final class SlowResource extends Resource {
+
+        private final AtomicInteger running;
+
+        private final AtomicInteger maximum;
+
+        private SlowResource(String name, AtomicInteger running, AtomicInteger maximum) {
+            super(name);
+            this.running = running;
+            this.maximum = maximum;
+        }
+
+        @Override
+        protected void loadImpl() {
+            this.maximum.accumulateAndGet(this.running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.running.decrementAndGet();
+        }
+    }
+}
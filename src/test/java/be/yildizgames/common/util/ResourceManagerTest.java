@@ -0,0 +1,302 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ResourceManagerTest {
+
+    @Nested
+    public class NewManager {
+
+        @Test
+        public void happyFlow() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            Assertions.assertEquals(100, manager.getBudget());
+            Assertions.assertEquals(0, manager.getUsedMemory());
+        }
+
+        @Test
+        public void zeroBudget() {
+            Assertions.assertThrows(AssertionError.class, () -> ResourceManager.newManager(0));
+        }
+    }
+
+    @Nested
+    public class Manage {
+
+        @Test
+        public void alreadyLoaded() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource r = new SizedResource("a", 40);
+            r.load();
+            manager.manage(r);
+            Assertions.assertEquals(40, manager.getUsedMemory());
+        }
+
+        @Test
+        public void sameName() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            manager.manage(new SizedResource("a", 40));
+            Assertions.assertThrows(InvalidParameterException.class, () -> manager.manage(new SizedResource("a", 40)));
+        }
+    }
+
+    @Nested
+    public class Load {
+
+        @Test
+        public void happyFlow() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 40);
+            SizedResource b = new SizedResource("b", 40);
+            manager.manage(a);
+            manager.manage(b);
+            manager.load(a);
+            manager.load(b);
+            Assertions.assertEquals(80, manager.getUsedMemory());
+            Assertions.assertEquals(0, manager.getUnloadCount());
+        }
+
+        @Test
+        public void leastRecentlyUsedUnloaded() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 40);
+            SizedResource b = new SizedResource("b", 40);
+            SizedResource c = new SizedResource("c", 40);
+            manager.manage(a);
+            manager.manage(b);
+            manager.manage(c);
+            manager.load(a);
+            manager.load(b);
+            manager.touch(a);
+            manager.load(c);
+            Assertions.assertTrue(a.isLoaded());
+            Assertions.assertFalse(b.isLoaded());
+            Assertions.assertTrue(c.isLoaded());
+            Assertions.assertEquals(1, b.unloadNumber);
+            Assertions.assertEquals(80, manager.getUsedMemory());
+            Assertions.assertEquals(1, manager.getUnloadCount());
+        }
+
+        @Test
+        public void loadedWithoutManager() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 60);
+            SizedResource b = new SizedResource("b", 60);
+            manager.manage(a);
+            manager.manage(b);
+            a.load();
+            b.load();
+            Assertions.assertFalse(a.isLoaded());
+            Assertions.assertTrue(b.isLoaded());
+            Assertions.assertEquals(60, manager.getUsedMemory());
+        }
+
+        @Test
+        public void biggerThanBudget() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 150);
+            manager.manage(a);
+            manager.load(a);
+            Assertions.assertTrue(a.isLoaded());
+            Assertions.assertEquals(150, manager.getUsedMemory());
+        }
+    }
+
+    @Nested
+    public class Pin {
+
+        @Test
+        public void happyFlow() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 40);
+            SizedResource b = new SizedResource("b", 40);
+            SizedResource c = new SizedResource("c", 40);
+            manager.manage(a);
+            manager.manage(b);
+            manager.manage(c);
+            manager.pin(a);
+            manager.load(a);
+            manager.load(b);
+            manager.load(c);
+            Assertions.assertTrue(a.isLoaded());
+            Assertions.assertFalse(b.isLoaded());
+            Assertions.assertTrue(c.isLoaded());
+        }
+
+        @Test
+        public void unpin() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 60);
+            SizedResource b = new SizedResource("b", 60);
+            manager.manage(a);
+            manager.manage(b);
+            manager.pin(a);
+            manager.pin(b);
+            manager.load(a);
+            manager.load(b);
+            Assertions.assertEquals(120, manager.getUsedMemory());
+            manager.unpin(a);
+            Assertions.assertFalse(a.isLoaded());
+            Assertions.assertTrue(b.isLoaded());
+            Assertions.assertEquals(60, manager.getUsedMemory());
+        }
+    }
+
+    @Nested
+    public class Referenced {
+
+        @Test
+        public void notUnloaded() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 60);
+            SizedResource b = new SizedResource("b", 60);
+            manager.manage(a);
+            manager.manage(b);
+            ResourceHandle<Resource> handle = a.acquire();
+            manager.load(b);
+            Assertions.assertTrue(a.isLoaded());
+            Assertions.assertTrue(b.isLoaded());
+            Assertions.assertEquals(120, manager.getUsedMemory());
+            handle.close();
+            Assertions.assertFalse(a.isLoaded());
+            Assertions.assertEquals(60, manager.getUsedMemory());
+        }
+
+        @Test
+        public void releasedImmediately() {
+            ResourceManager manager = ResourceManager.newReleasingManager(100);
+            SizedResource a = new SizedResource("a", 10);
+            manager.manage(a);
+            ResourceHandle<Resource> handle = a.acquire();
+            ResourceHandle<Resource> other = a.acquire();
+            handle.close();
+            Assertions.assertTrue(a.isLoaded());
+            other.close();
+            Assertions.assertFalse(a.isLoaded());
+            Assertions.assertEquals(0, manager.getUsedMemory());
+            Assertions.assertEquals(1, manager.getUnloadCount());
+        }
+
+        @Test
+        public void pinned() {
+            ResourceManager manager = ResourceManager.newReleasingManager(100);
+            SizedResource a = new SizedResource("a", 10);
+            manager.manage(a);
+            manager.pin(a);
+            a.acquire().close();
+            Assertions.assertTrue(a.isLoaded());
+        }
+
+        @Test
+        public void releasedAfterDelay() throws Exception {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            ResourceManager manager = ResourceManager.newReleasingManager(100, 50, scheduler);
+            SizedResource a = new SizedResource("a", 10);
+            SizedResource b = new SizedResource("b", 10);
+            manager.manage(a);
+            manager.manage(b);
+            a.acquire().close();
+            b.acquire().close();
+            ResourceHandle<Resource> handle = b.acquire();
+            Assertions.assertTrue(a.isLoaded());
+            //The scheduler has a single thread, this task runs after both pending releases.
+            scheduler.schedule(() -> null, 50, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+            Assertions.assertFalse(a.isLoaded());
+            Assertions.assertTrue(b.isLoaded());
+            handle.close();
+            scheduler.shutdown();
+        }
+    }
+
+    @Nested
+    public class Release {
+
+        @Test
+        public void happyFlow() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 60);
+            manager.manage(a);
+            manager.load(a);
+            manager.release(a);
+            Assertions.assertTrue(a.isLoaded());
+            Assertions.assertEquals(0, manager.getUsedMemory());
+            SizedResource b = new SizedResource("b", 60);
+            manager.manage(b);
+            manager.load(b);
+            Assertions.assertTrue(a.isLoaded());
+        }
+    }
+
+    @Nested
+    public class Unloaded {
+
+        @Test
+        public void happyFlow() {
+            ResourceManager manager = ResourceManager.newManager(100);
+            SizedResource a = new SizedResource("a", 60);
+            manager.manage(a);
+            manager.load(a);
+            a.unload();
+            Assertions.assertEquals(0, manager.getUsedMemory());
+            Assertions.assertEquals(0, manager.getUnloadCount());
+        }
+    }
+
+    private static final class SizedResource extends Resource {
+
+        private final long size;
+
+        private int unloadNumber;
+
+        private SizedResource(String name, long size) {
+            super(name);
+            this.size = size;
+        }
+
+        @Override
+        protected void loadImpl() {
+            //Nothing to load.
+        }
+
+        @Override
+        protected void unloadImpl() {
+            this.unloadNumber++;
+        }
+
+        @Override
+        public long getSize() {
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceManifestTest {
+
+    private static Path temporaryFile() throws IOException {
+        Path file = Files.createTempFile("manifest", ".txt");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Nested
+    public class Record {
+
+        @Test
+        public void happyFlow() {
+            ResourceManifestRecorder recorder = ResourceManifestRecorder.newRecorder();
+            TestResource a = new TestResource("a");
+            TestResource b = new TestResource("b");
+            TestResource c = new TestResource("c");
+            recorder.record(a);
+            recorder.record(b);
+            recorder.record(c);
+            b.load();
+            a.load();
+            b.unload();
+            b.load();
+            assertEquals(List.of("b", "a"), recorder.toManifest().getNames());
+        }
+
+        @Test
+        public void alreadyLoaded() {
+            ResourceManifestRecorder recorder = ResourceManifestRecorder.newRecorder();
+            TestResource a = new TestResource("a");
+            a.load();
+            recorder.record(a);
+            assertEquals(List.of("a"), recorder.toManifest().getNames());
+        }
+
+        @Test
+        public void stopRecording() {
+            ResourceManifestRecorder recorder = ResourceManifestRecorder.newRecorder();
+            TestResource a = new TestResource("a");
+            recorder.record(a);
+            recorder.stopRecording(a);
+            a.load();
+            assertEquals(0, recorder.toManifest().size());
+        }
+    }
+
+    @Nested
+    public class Read {
+
+        @Test
+        public void happyFlow() throws IOException {
+            ResourceManifestRecorder recorder = ResourceManifestRecorder.newRecorder();
+            TestResource a = new TestResource("a b");
+            TestResource b = new TestResource("tést");
+            recorder.record(a);
+            recorder.record(b);
+            a.load();
+            b.load();
+            Path file = temporaryFile();
+            recorder.write(file);
+            ResourceManifest manifest = ResourceManifest.read(file);
+            assertEquals(List.of("a b", "tést"), manifest.getNames());
+            assertTrue(manifest.getLoadTime(0) <= manifest.getLoadTime(1));
+        }
+
+        @Test
+        public void invalid() throws IOException {
+            Path file = temporaryFile();
+            Files.write(file, List.of("12 a", "abc"), StandardCharsets.UTF_8);
+            assertThrows(IOException.class, () -> ResourceManifest.read(file));
+        }
+    }
+
+    @Nested
+    public class Preload {
+
+        @Test
+        public void happyFlow() {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            Registerer<TestResource> registerer = Registerer.newRegisterer();
+            TestResource a = new TestResource("a");
+            TestResource b = new TestResource("b");
+            TestResource c = new TestResource("c");
+            registerer.register(a);
+            registerer.register(b);
+            registerer.register(c);
+            ResourceManifest manifest = new ResourceManifest(List.of("b", "unknown", "a"), new long[]{0, 1, 2});
+            assertEquals(2, manifest.preload(registerer, executor).join().intValue());
+            assertTrue(a.isLoaded());
+            assertTrue(b.isLoaded());
+            assertFalse(c.isLoaded());
+            executor.shutdown();
+        }
+    }
+
+    private static final class TestResource extends Resource {
+
+        private TestResource(String name) {
+            super(name);
+        }
+
+        @Override
+        protected void loadImpl() {
+            //Nothing to load.
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourcePackTest {
+
+    private static final String REPEATED = "abcdefgh".repeat(100);
+
+    private static Path pack(boolean compress) throws IOException {
+        Path directory = Files.createTempDirectory("resources");
+        Files.createDirectory(directory.resolve("textures"));
+        Files.write(directory.resolve("level.txt"), "level 1".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("textures").resolve("wall.txt"), REPEATED.getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("empty.txt"), new byte[0]);
+        Path archive = Files.createTempFile("resources", ".pack");
+        assertEquals(3, ResourcePacker.pack(directory, archive, compress));
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+        archive.toFile().deleteOnExit();
+        return archive;
+    }
+
+    private static String read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    public class Read {
+
+        @Test
+        public void happyFlow() throws IOException {
+            try (ResourcePack pack = ResourcePack.open(pack(false))) {
+                assertEquals(Set.of("level.txt", "textures/wall.txt", "empty.txt"), pack.getNames());
+                assertEquals("level 1", read(pack.read("level.txt")));
+                assertEquals(REPEATED, read(pack.read("textures/wall.txt")));
+                assertEquals("", read(pack.read("empty.txt")));
+            }
+        }
+
+        @Test
+        public void compressed() throws IOException {
+            Path archive = pack(true);
+            assertTrue(Files.size(archive) < REPEATED.length());
+            try (ResourcePack pack = ResourcePack.open(archive)) {
+                assertEquals("level 1", read(pack.read("level.txt")));
+                assertEquals(REPEATED, read(pack.read("textures/wall.txt")));
+                assertEquals(REPEATED.length(), pack.getSize("textures/wall.txt"));
+                assertEquals("", read(pack.read("empty.txt")));
+            }
+        }
+
+        @Test
+        public void notFound() throws IOException {
+            try (ResourcePack pack = ResourcePack.open(pack(false))) {
+                assertFalse(pack.contains("unknown"));
+                assertThrows(InvalidParameterException.class, () -> pack.read("unknown"));
+            }
+        }
+    }
+
+    @Nested
+    public class NewMappedResource {
+
+        @Test
+        public void happyFlow() throws IOException {
+            try (ResourcePack pack = ResourcePack.open(pack(false))) {
+                MappedResource r = pack.newMappedResource("textures/wall.txt");
+                r.load();
+                assertEquals(REPEATED, read(r.getContent()));
+                r.unload();
+            }
+        }
+
+        @Test
+        public void compressed() throws IOException {
+            try (ResourcePack pack = ResourcePack.open(pack(true))) {
+                assertThrows(InvalidParameterException.class, () -> pack.newMappedResource("textures/wall.txt"));
+                MappedResource r = pack.newMappedResource("level.txt");
+                r.load();
+                assertEquals("level 1", read(r.getContent()));
+                r.unload();
+            }
+        }
+    }
+
+    @Nested
+    public class Open {
+
+        @Test
+        public void notAPack() throws IOException {
+            Path file = Files.createTempFile("resources", ".pack");
+            file.toFile().deleteOnExit();
+            Files.write(file, "not a pack at all".getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> ResourcePack.open(file));
+        }
+
+        @Test
+        public void indexBiggerThanFile() throws IOException {
+            Path archive = pack(false);
+            writeInt(archive, 12, Integer.MAX_VALUE);
+            assertThrows(IOException.class, () -> ResourcePack.open(archive));
+        }
+
+        @Test
+        public void countBiggerThanIndex() throws IOException {
+            Path archive = pack(false);
+            writeInt(archive, 8, Integer.MAX_VALUE);
+            assertThrows(IOException.class, () -> ResourcePack.open(archive));
+        }
+
+        @Test
+        public void negativeOriginalSize() throws IOException {
+            Path archive = pack(true);
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(archive));
+            int nameSize = content.getShort(ResourcePack.HEADER_SIZE) & 0xFFFF;
+            writeInt(archive, ResourcePack.HEADER_SIZE + Short.BYTES + nameSize + Long.BYTES + Integer.BYTES, -1);
+            assertThrows(IOException.class, () -> ResourcePack.open(archive));
+        }
+
+        private void writeInt(Path file, int position, int value) throws IOException {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+            content.putInt(position, value);
+            Files.write(file, content.array());
+        }
+    }
+}
@@ -27,6 +27,16 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ResourceTest {
 
@@ -45,6 +55,345 @@ public class ResourceTest {
         }
     }
 
+    @Nested
+    public class Concurrent {
+
+        @Test
+        public void loadedOnce() throws InterruptedException {
+            //One more thread than callers, the asynchronous loading must not wait behind the blocked callers.
+            ExecutorService executor = Executors.newFixedThreadPool(9);
+            BlockingResource r = new BlockingResource(0);
+            List<CompletableFuture<Void>> loads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                loads.add(CompletableFuture.runAsync(r::load, executor));
+            }
+            CompletableFuture<Resource> async = r.loadAsync(executor);
+            r.started.await();
+            Assertions.assertEquals(Resource.State.LOADING, r.getState());
+            r.release.countDown();
+            loads.forEach(CompletableFuture::join);
+            Assertions.assertSame(r, async.join());
+            Assertions.assertEquals(1, r.loadNumber.get());
+            Assertions.assertEquals(Resource.State.LOADED, r.getState());
+            executor.shutdown();
+        }
+
+        @Test
+        public void failureShared() throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            BlockingResource r = new BlockingResource(1);
+            CompletableFuture<Resource> first = r.loadAsync(executor);
+            r.started.await();
+            CompletableFuture<Resource> second = r.loadAsync(executor);
+            r.release.countDown();
+            Assertions.assertThrows(CompletionException.class, first::join);
+            Assertions.assertThrows(CompletionException.class, second::join);
+            Assertions.assertEquals(1, r.loadNumber.get());
+            Assertions.assertEquals(Resource.State.FAILED, r.getState());
+            r.load();
+            Assertions.assertEquals(2, r.loadNumber.get());
+            Assertions.assertTrue(r.isLoaded());
+            executor.shutdown();
+        }
+    }
+
+    @Nested
+    public class State {
+
+        @Test
+        public void happyFlow() {
+            DummyResource r = new DummyResource();
+            Assertions.assertEquals(Resource.State.NOT_LOADED, r.getState());
+            Assertions.assertFalse(r.isLoaded());
+            r.load();
+            Assertions.assertEquals(Resource.State.LOADED, r.getState());
+            Assertions.assertTrue(r.isLoaded());
+        }
+
+        @Test
+        public void failed() {
+            FailingResource r = new FailingResource(1);
+            Assertions.assertThrows(IllegalStateException.class, r::load);
+            Assertions.assertEquals(Resource.State.FAILED, r.getState());
+            r.load();
+            Assertions.assertEquals(Resource.State.LOADED, r.getState());
+        }
+    }
+
+    @Nested
+    public class LoadAsync {
+
+        @Test
+        public void happyFlow() {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            DummyResource r = new DummyResource();
+            Assertions.assertSame(r, r.loadAsync(executor).join());
+            Assertions.assertEquals(1, r.loadNumber);
+            Assertions.assertSame(r, r.loadAsync(executor).join());
+            Assertions.assertEquals(1, r.loadNumber);
+            executor.shutdown();
+        }
+
+        @Test
+        public void failed() {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            FailingResource r = new FailingResource(1);
+            CompletionException e = Assertions.assertThrows(CompletionException.class, () -> r.loadAsync(executor).join());
+            Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+            Assertions.assertEquals(Resource.State.FAILED, r.getState());
+            executor.shutdown();
+        }
+    }
+
+    @Nested
+    public class FailingListener {
+
+        @Test
+        public void loadNotAffected() {
+            List<Throwable> errors = new ArrayList<>();
+            Thread thread = Thread.currentThread();
+            Thread.UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+            thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+            try {
+                List<String> events = new ArrayList<>();
+                DummyResource r = new DummyResource();
+                r.addListener(new ResourceListener() {
+                    @Override
+                    public void loaded(Resource resource) {
+                        throw new IllegalStateException("listener");
+                    }
+                });
+                r.addListener(new ResourceListener() {
+                    @Override
+                    public void loaded(Resource resource) {
+                        events.add("loaded");
+                    }
+                });
+                CompletableFuture<Resource> future = r.loadAsync(Runnable::run);
+                Assertions.assertSame(r, future.join());
+                Assertions.assertTrue(r.isLoaded());
+                Assertions.assertEquals(List.of("loaded"), events);
+                Assertions.assertEquals(1, errors.size());
+            } finally {
+                thread.setUncaughtExceptionHandler(previous);
+            }
+        }
+
+        @Test
+        public void waitingThreadsReleased() throws InterruptedException {
+            Thread.UncaughtExceptionHandler silent = (t, e) -> { };
+            BlockingResource r = new BlockingResource(0);
+            r.addListener(new ResourceListener() {
+                @Override
+                public void loaded(Resource resource) {
+                    throw new IllegalStateException("listener");
+                }
+            });
+            Thread loader = new Thread(r::load);
+            loader.setUncaughtExceptionHandler(silent);
+            loader.start();
+            r.started.await();
+            CompletableFuture<Void> waiting = CompletableFuture.runAsync(r::load);
+            r.release.countDown();
+            waiting.join();
+            loader.join();
+            Assertions.assertTrue(r.isLoaded());
+        }
+    }
+
+    @Nested
+    public class Unload {
+
+        @Test
+        public void happyFlow() {
+            DummyResource r = new DummyResource();
+            r.load();
+            Assertions.assertTrue(r.unload());
+            Assertions.assertEquals(Resource.State.NOT_LOADED, r.getState());
+            r.load();
+            Assertions.assertEquals(2, r.loadNumber);
+        }
+
+        @Test
+        public void notLoaded() {
+            DummyResource r = new DummyResource();
+            Assertions.assertFalse(r.unload());
+        }
+    }
+
+    @Nested
+    public class Reload {
+
+        @Test
+        public void happyFlow() {
+            DummyResource r = new DummyResource();
+            r.load();
+            r.reload();
+            Assertions.assertEquals(2, r.loadNumber);
+            Assertions.assertTrue(r.isLoaded());
+        }
+
+        @Test
+        public void notLoaded() {
+            DummyResource r = new DummyResource();
+            r.reload();
+            Assertions.assertEquals(1, r.loadNumber);
+            Assertions.assertTrue(r.isLoaded());
+        }
+
+        @Test
+        public void failed() {
+            FailingResource r = new FailingResource(0);
+            r.load();
+            r.failures = 1;
+            Assertions.assertThrows(IllegalStateException.class, r::reload);
+            Assertions.assertTrue(r.isLoaded());
+        }
+
+        @Test
+        public void notReloadable() {
+            BlockingResource r = new BlockingResource(0);
+            r.release.countDown();
+            r.load();
+            Assertions.assertThrows(UnsupportedOperationException.class, r::reload);
+            Assertions.assertEquals(1, r.loadNumber.get());
+            Assertions.assertTrue(r.isLoaded());
+        }
+
+        @Test
+        public void listenersCalledOutsideLock() {
+            DummyResource r = new DummyResource();
+            r.load();
+            AtomicBoolean unloaded = new AtomicBoolean();
+            r.addListener(new ResourceListener() {
+                @Override
+                public void reloaded(Resource resource) {
+                    unloaded.set(CompletableFuture.supplyAsync(resource::unload).orTimeout(5, TimeUnit.SECONDS).join());
+                }
+            });
+            r.reload();
+            Assertions.assertTrue(unloaded.get());
+            Assertions.assertFalse(r.isLoaded());
+        }
+    }
+
+    @Nested
+    public class Acquire {
+
+        @Test
+        public void happyFlow() {
+            DummyResource r = new DummyResource();
+            try (ResourceHandle<Resource> handle = r.acquire()) {
+                Assertions.assertSame(r, handle.get());
+                Assertions.assertTrue(r.isLoaded());
+                Assertions.assertEquals(1, r.getReferenceCount());
+                Assertions.assertFalse(r.unload());
+            }
+            Assertions.assertEquals(0, r.getReferenceCount());
+            Assertions.assertTrue(r.unload());
+        }
+
+        @Test
+        public void closedTwice() {
+            DummyResource r = new DummyResource();
+            ResourceHandle<DummyResource> handle = ResourceHandle.acquire(r);
+            ResourceHandle<DummyResource> other = ResourceHandle.acquire(r);
+            handle.close();
+            handle.close();
+            Assertions.assertTrue(handle.isClosed());
+            Assertions.assertThrows(IllegalStateException.class, handle::get);
+            Assertions.assertEquals(1, r.getReferenceCount());
+            other.close();
+            Assertions.assertEquals(0, r.getReferenceCount());
+        }
+
+        @Test
+        public void loadFailed() {
+            FailingResource r = new FailingResource(1);
+            Assertions.assertThrows(IllegalStateException.class, r::acquire);
+            Assertions.assertEquals(0, r.getReferenceCount());
+        }
+
+        @Test
+        public void unreferenced() {
+            List<String> events = new ArrayList<>();
+            DummyResource r = new DummyResource();
+            r.addListener(new ResourceListener() {
+                @Override
+                public void unreferenced(Resource resource) {
+                    events.add("unreferenced");
+                }
+            });
+            ResourceHandle<Resource> handle = r.acquire();
+            ResourceHandle<Resource> other = r.acquire();
+            handle.close();
+            Assertions.assertEquals(List.of(), events);
+            other.close();
+            Assertions.assertEquals(List.of("unreferenced"), events);
+        }
+
+        @Test
+        public void concurrentUnload() throws InterruptedException {
+            DummyResource r = new DummyResource();
+            r.load();
+            AtomicInteger errors = new AtomicInteger();
+            Thread unloader = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    r.unload();
+                }
+            });
+            unloader.start();
+            for (int i = 0; i < 10000; i++) {
+                try (ResourceHandle<Resource> handle = r.acquire()) {
+                    if (!handle.get().isLoaded()) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }
+            unloader.join();
+            Assertions.assertEquals(0, errors.get());
+        }
+    }
+
+    @Nested
+    public class Listener {
+
+        @Test
+        public void happyFlow() {
+            List<String> events = new ArrayList<>();
+            FailingResource r = new FailingResource(1);
+            ResourceListener listener = new ResourceListener() {
+                @Override
+                public void loaded(Resource resource) {
+                    events.add("loaded");
+                }
+
+                @Override
+                public void loadFailed(Resource resource, RuntimeException cause) {
+                    events.add("failed");
+                }
+
+                @Override
+                public void unloaded(Resource resource) {
+                    events.add("unloaded");
+                }
+
+                @Override
+                public void reloaded(Resource resource) {
+                    events.add("reloaded");
+                }
+            };
+            r.addListener(listener);
+            Assertions.assertThrows(IllegalStateException.class, r::load);
+            r.load();
+            r.reload();
+            r.unload();
+            r.removeListener(listener);
+            r.load();
+            Assertions.assertEquals(List.of("failed", "loaded", "reloaded", "unloaded"), events);
+        }
+    }
+
     @Nested
     public class ToString {
 
@@ -128,6 +477,75 @@ public class ResourceTest {
         protected void loadImpl() {
             this.loadNumber++;
         }
+
+        @Override
+        protected void reloadImpl() {
+            this.loadImpl();
+        }
+
+        @Override
+        public boolean isReloadable() {
+            return true;
+        }
+    }
+
+    private static final class BlockingResource extends Resource {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger loadNumber = new AtomicInteger();
+
+        private int failures;
+
+        private BlockingResource(int failures) {
+            super("blocking");
+            this.failures = failures;
+        }
+
+        @Override
+        protected void loadImpl() {
+            this.loadNumber.incrementAndGet();
+            this.started.countDown();
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (this.failures > 0) {
+                this.failures--;
+                throw new IllegalStateException("failure");
+            }
+        }
+    }
+
+    private static final class FailingResource extends Resource {
+
+        private int failures;
+
+        private FailingResource(int failures) {
+            super("failing");
+            this.failures = failures;
+        }
+
+        @Override
+        protected void loadImpl() {
+            if (this.failures > 0) {
+                this.failures--;
+                throw new IllegalStateException("failure");
+            }
+        }
+
+        @Override
+        protected void reloadImpl() {
+            this.loadImpl();
+        }
+
+        @Override
+        public boolean isReloadable() {
+            return true;
+        }
     }
 
 }
@@ -0,0 +1,192 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Grégory Van Den Borre
+ */
+public class ResourceWatcherTest {
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < end, "Condition not met before the deadline.");
+            Thread.sleep(5);
+        }
+    }
+
+    @Nested
+    public class Watch {
+
+        @Test
+        public void happyFlow() throws IOException, InterruptedException {
+            Path directory = Files.createTempDirectory("watched");
+            Path file = directory.resolve("a.txt");
+            Files.write(file, "1".getBytes(StandardCharsets.UTF_8));
+            FileResource loaded = new FileResource("loaded", file);
+            FileResource notLoaded = new FileResource("notLoaded", file);
+            loaded.load();
+            ResourceWatcher watcher = ResourceWatcher.newWatcher(50);
+            watcher.watch(file, loaded);
+            watcher.watch(file, notLoaded);
+            watcher.start();
+            Files.write(file, "2".getBytes(StandardCharsets.UTF_8));
+            Files.write(file, "3".getBytes(StandardCharsets.UTF_8));
+            waitFor(() -> "3".equals(loaded.content) && watcher.getReloadCount() > 0);
+            watcher.stop();
+            assertEquals("3", loaded.content);
+            assertTrue(loaded.isLoaded());
+            assertEquals(0, notLoaded.loadNumber.get());
+            assertTrue(watcher.getReloadCount() >= 1);
+            assertEquals(0, watcher.getFailureCount());
+            assertTrue(watcher.getMaxLatency() >= watcher.getLastLatency());
+            Files.delete(file);
+            Files.delete(directory);
+        }
+
+        @Test
+        public void otherFile() throws IOException, InterruptedException {
+            Path directory = Files.createTempDirectory("watched");
+            Path file = directory.resolve("a.txt");
+            Path other = directory.resolve("b.txt");
+            Files.write(file, "1".getBytes(StandardCharsets.UTF_8));
+            FileResource r = new FileResource("r", file);
+            r.load();
+            ResourceWatcher watcher = ResourceWatcher.newWatcher(10);
+            watcher.watch(file, r);
+            watcher.start();
+            Files.write(other, "2".getBytes(StandardCharsets.UTF_8));
+            Files.write(file, "3".getBytes(StandardCharsets.UTF_8));
+            waitFor(() -> "3".equals(r.content));
+            watcher.stop();
+            assertEquals(2, r.loadNumber.get());
+            assertEquals(1, watcher.getReloadCount());
+            Files.delete(file);
+            Files.delete(other);
+            Files.delete(directory);
+        }
+
+        @Test
+        public void otherFileNotDelayingReload() throws IOException, InterruptedException {
+            Path directory = Files.createTempDirectory("watched");
+            Path file = directory.resolve("a.txt");
+            Path other = directory.resolve("b.txt");
+            Files.write(file, "1".getBytes(StandardCharsets.UTF_8));
+            FileResource r = new FileResource("r", file);
+            r.load();
+            ResourceWatcher watcher = ResourceWatcher.newWatcher(100);
+            watcher.watch(file, r);
+            watcher.start();
+            Files.write(file, "2".getBytes(StandardCharsets.UTF_8));
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            int i = 0;
+            while (!"2".equals(r.content)) {
+                assertTrue(System.nanoTime() < end, "Reload delayed by the other file changes.");
+                Files.write(other, Integer.toString(i++).getBytes(StandardCharsets.UTF_8));
+                Thread.sleep(10);
+            }
+            watcher.stop();
+            assertEquals(1, watcher.getReloadCount());
+            Files.delete(file);
+            Files.delete(other);
+            Files.delete(directory);
+        }
+
+        @Test
+        public void notReloadable() throws IOException {
+            Path file = Files.createTempFile("watched", ".txt");
+            Resource r = new Resource("r") {
+                @Override
+                protected void loadImpl() {
+                    //Nothing to load.
+                }
+            };
+            ResourceWatcher watcher = ResourceWatcher.newWatcher(10);
+            assertThrows(IllegalArgumentException.class, () -> watcher.watch(file, r));
+            Files.delete(file);
+        }
+    }
+
+    @Nested
+    public class Start {
+
+        @Test
+        public void alreadyStarted() throws IOException {
+            ResourceWatcher watcher = ResourceWatcher.newWatcher(10);
+            watcher.start();
+            assertThrows(IllegalStateException.class, watcher::start);
+            watcher.stop();
+        }
+    }
+
+    private static final class FileResource extends Resource {
+
+        private final Path file;
+
+        private final AtomicInteger loadNumber = new AtomicInteger();
+
+        private volatile String content;
+
+        private FileResource(String name, Path file) {
+            super(name);
+            this.file = file;
+        }
+
+        @Override
+        protected void loadImpl() {
+            this.loadNumber.incrementAndGet();
+            try {
+                this.content = new String(Files.readAllBytes(this.file), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected void reloadImpl() {
+            this.loadImpl();
+        }
+
+        @Override
+        public boolean isReloadable() {
+            return true;
+        }
+    }
+}